@@ -0,0 +1,104 @@
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Multi-producer, single-consumer ring buffer of log lines with its own writer thread.
+ * Producers claim a slot with one CAS and store the line; the writer drains lines in
+ * batches and writes each batch with a single print, so logging threads never touch the
+ * PrintStream lock. When the ring is full, producers wait for the writer, spinning
+ * briefly and then parking (lines are never dropped). An empty slot means "not yet
+ * published", so a null line is stored as "null", the way print(null) would show it.
+ */
+public class AsyncLogWriter {
+    private static final int FULL_SPINS = 100;
+
+    private final AtomicReferenceArray<String> slots;
+    private final int mask;
+    private final AtomicLong writeSequence = new AtomicLong();
+    private volatile long readSequence;
+    private volatile long writtenSequence;
+    private volatile PrintStream out;
+    private final Thread writer;
+
+    public AsyncLogWriter(int capacity, PrintStream out) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.out = out;
+        this.writer = new Thread(this::drain, "async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void append(String line) {
+        String published = line != null ? line : "null";
+        long sequence;
+        int fullSpins = 0;
+        while (true) {
+            sequence = writeSequence.get();
+            if (sequence - readSequence >= slots.length()) {
+                // Full: let the writer catch up, without burning a core while it writes
+                LockSupport.unpark(writer);
+                if (++fullSpins < FULL_SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(50_000);
+                }
+                continue;
+            }
+            if (writeSequence.compareAndSet(sequence, sequence + 1)) {
+                break;
+            }
+        }
+        slots.set((int) (sequence & mask), published);
+        LockSupport.unpark(writer);
+    }
+
+    // Blocks until every line appended before this call has been written out
+    public void flush() {
+        long target = writeSequence.get();
+        while (writtenSequence < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(50_000);
+        }
+    }
+
+    public void setOutput(PrintStream out) {
+        flush();
+        this.out = out;
+    }
+
+    public PrintStream getOutput() {
+        return out;
+    }
+
+    private void drain() {
+        StringBuilder batch = new StringBuilder(4096);
+        while (true) {
+            long sequence = readSequence;
+            int index = (int) (sequence & mask);
+            String line = slots.get(index);
+            if (line != null) {
+                slots.set(index, null);
+                readSequence = sequence + 1;
+                batch.append(line).append('\n');
+                if (batch.length() < 64 * 1024) {
+                    continue;
+                }
+            }
+            if (batch.length() > 0) {
+                PrintStream target = out;
+                target.print(batch);
+                target.flush();
+                batch.setLength(0);
+                writtenSequence = readSequence;
+            } else {
+                LockSupport.parkNanos(1_000_000);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking counterpart of PaymentHandler.
+ * processPaymentAsync returns at once with a CompletableFuture. Payments run on a pool
+ * of maxInFlight threads, so at most that many gateway calls are outstanding. Each
+ * payment method has its own timeout; a payment that takes longer completes as
+ * TIMED_OUT, and if it is approved afterwards the approval is voided (through the
+ * gateway, or PaymentStrategy.reverse) so the customer is never charged for an order
+ * the caller already gave up on.
+ * With a PaymentGateway configured, methods that support batch settlement (card, wallet)
+ * are coalesced by SettlementBatcher into one gateway call per batch; every entry
+ * carries its payer's own authorization.
+ */
+public class AsyncPaymentHandler {
+    private final ExecutorService workers;
+    private final ScheduledExecutorService scheduler;
+    private final PaymentGateway gateway;
+    private final int maxBatchSize;
+    private final long batchWindowMillis;
+    private final Map<String, Long> timeouts = new ConcurrentHashMap<>();
+    private final Map<String, SettlementBatcher> batchers = new ConcurrentHashMap<>();
+    private volatile long defaultTimeoutMillis = 5000;
+
+    public AsyncPaymentHandler(int maxInFlight) {
+        this(maxInFlight, null, 1, 0);
+    }
+
+    public AsyncPaymentHandler(int maxInFlight, PaymentGateway gateway, int maxBatchSize, long batchWindowMillis) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("In-flight limit must be positive");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(maxInFlight, r -> {
+            Thread t = new Thread(r, "payment-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "payment-batcher");
+            t.setDaemon(true);
+            return t;
+        });
+        this.gateway = gateway;
+        this.maxBatchSize = maxBatchSize;
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    public void setTimeout(String paymentMethodName, long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        timeouts.put(paymentMethodName, timeoutMillis);
+    }
+
+    public void setDefaultTimeout(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.defaultTimeoutMillis = timeoutMillis;
+    }
+
+    public CompletableFuture<PaymentOutcome> processPaymentAsync(long amountCents, PaymentStrategy strategy) {
+        if (strategy == null) {
+            Log.warn("[AsyncPaymentHandler] Payment strategy is null");
+            return CompletableFuture.completedFuture(PaymentOutcome.DECLINED);
+        }
+        if (amountCents <= 0) {
+            Log.warn(() -> "[AsyncPaymentHandler] Invalid payment amount: " + Money.format(amountCents));
+            return CompletableFuture.completedFuture(PaymentOutcome.DECLINED);
+        }
+
+        String method = strategy.getPaymentMethodName();
+        CompletableFuture<Boolean> payment;
+        Runnable reversal;
+        if (gateway != null && strategy.supportsBatchSettlement()) {
+            PaymentAuthorization authorization = strategy.createAuthorization(amountCents);
+            payment = batchers.computeIfAbsent(method, m ->
+                new SettlementBatcher(m, gateway, workers, scheduler, maxBatchSize, batchWindowMillis))
+                .submit(authorization);
+            reversal = () -> gateway.voidAuthorization(authorization);
+        } else {
+            payment = CompletableFuture.supplyAsync(() -> strategy.pay(amountCents), workers);
+            reversal = () -> {
+                if (!strategy.reverse(amountCents)) {
+                    throw new IllegalStateException(method + " cannot reverse a payment");
+                }
+            };
+        }
+
+        CompletableFuture<PaymentOutcome> result = new CompletableFuture<>();
+        payment.whenComplete((approved, error) -> {
+            if (error != null) {
+                Log.warn(() -> "[AsyncPaymentHandler] " + method + " payment failed: " + error.getMessage());
+            }
+            PaymentOutcome outcome = error != null ? PaymentOutcome.ERROR
+                : approved ? PaymentOutcome.APPROVED : PaymentOutcome.DECLINED;
+            if (!result.complete(outcome) && outcome == PaymentOutcome.APPROVED) {
+                voidLateApproval(method, amountCents, reversal);
+            }
+        });
+        long timeout = timeouts.getOrDefault(method, defaultTimeoutMillis);
+        return result.completeOnTimeout(PaymentOutcome.TIMED_OUT, timeout, TimeUnit.MILLISECONDS);
+    }
+
+    // The caller was already told TIMED_OUT, so this approval must not stand
+    private void voidLateApproval(String method, long amountCents, Runnable reversal) {
+        Log.warn(() -> "[AsyncPaymentHandler] " + method + " approved " + Money.format(amountCents)
+            + " after its timeout -> voiding");
+        try {
+            workers.execute(() -> runReversal(method, amountCents, reversal));
+        } catch (RejectedExecutionException e) {
+            runReversal(method, amountCents, reversal);
+        }
+    }
+
+    private static void runReversal(String method, long amountCents, Runnable reversal) {
+        try {
+            reversal.run();
+        } catch (RuntimeException e) {
+            Log.error(() -> "[AsyncPaymentHandler] Could not void late " + method + " approval of "
+                + Money.format(amountCents) + ": " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+        workers.shutdown();
+    }
+}
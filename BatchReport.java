@@ -0,0 +1,125 @@
+import java.util.*;
+
+/**
+ * Result of one run over many orders (OrderBatchProcessor, LoadDriver, ShardedRuntime):
+ * order counts and throughput, plus per-step latency and/or an end-to-end latency
+ * histogram when the run measured them
+ */
+public class BatchReport {
+    private final String label;
+    private final int completed;
+    private final int cancelled;
+    private final int failed;
+    private final long elapsedNanos;
+    private final Map<OrderStep, Long> stepCounts;
+    private final Map<OrderStep, Long> stepTotalNanos;
+    private final Map<OrderStep, Long> stepMaxNanos;
+    private final LatencyHistogram latency;
+
+    public BatchReport(int completed, int cancelled, int failed, long elapsedNanos,
+                       Map<OrderStep, Long> stepCounts, Map<OrderStep, Long> stepTotalNanos,
+                       Map<OrderStep, Long> stepMaxNanos) {
+        this(null, completed, cancelled, failed, elapsedNanos, stepCounts, stepTotalNanos, stepMaxNanos, null);
+    }
+
+    // Load runs: end-to-end latency per order, no per-step breakdown
+    public BatchReport(String label, int completed, int cancelled, int failed, long elapsedNanos,
+                       LatencyHistogram latency) {
+        this(label, completed, cancelled, failed, elapsedNanos,
+            Collections.emptyMap(), Collections.emptyMap(), Collections.emptyMap(), latency);
+    }
+
+    private BatchReport(String label, int completed, int cancelled, int failed, long elapsedNanos,
+                        Map<OrderStep, Long> stepCounts, Map<OrderStep, Long> stepTotalNanos,
+                        Map<OrderStep, Long> stepMaxNanos, LatencyHistogram latency) {
+        this.label = label;
+        this.completed = completed;
+        this.cancelled = cancelled;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+        this.stepCounts = copy(stepCounts);
+        this.stepTotalNanos = copy(stepTotalNanos);
+        this.stepMaxNanos = copy(stepMaxNanos);
+        this.latency = latency;
+    }
+
+    private static Map<OrderStep, Long> copy(Map<OrderStep, Long> values) {
+        Map<OrderStep, Long> copy = new EnumMap<>(OrderStep.class);
+        copy.putAll(values);
+        return copy;
+    }
+
+    // What was run, e.g. "closed loop x8"; null for a plain batch
+    public String getLabel() {
+        return label;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public int getCancelled() {
+        return cancelled;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public int getTotalOrders() {
+        return completed + cancelled + failed;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getOrdersPerSecond() {
+        if (elapsedNanos <= 0) {
+            return 0.0;
+        }
+        return getTotalOrders() * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public long getStepCount(OrderStep step) {
+        return stepCounts.getOrDefault(step, 0L);
+    }
+
+    public double getAverageStepMicros(OrderStep step) {
+        long count = getStepCount(step);
+        if (count == 0) {
+            return 0.0;
+        }
+        return stepTotalNanos.getOrDefault(step, 0L) / 1000.0 / count;
+    }
+
+    public double getMaxStepMicros(OrderStep step) {
+        return stepMaxNanos.getOrDefault(step, 0L) / 1000.0;
+    }
+
+    // End-to-end latency in nanoseconds, null when the run did not measure it.
+    // Open-loop runs measure from each order's intended start.
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (label != null) {
+            sb.append('[').append(label).append("] ");
+        }
+        sb.append(String.format("Orders: %d (completed=%d, cancelled=%d, failed=%d) in %.2f ms -> %.1f orders/s%n",
+            getTotalOrders(), completed, cancelled, failed, elapsedNanos / 1_000_000.0, getOrdersPerSecond()));
+        if (latency != null) {
+            sb.append("  latency: ").append(latency.summary(1000.0, "us")).append(System.lineSeparator());
+        }
+        if (!stepCounts.isEmpty()) {
+            for (OrderStep step : OrderStep.values()) {
+                sb.append(String.format("  %-10s runs=%-8d avg=%10.1f us  max=%10.1f us%n",
+                    step, getStepCount(step), getAverageStepMicros(step), getMaxStepMicros(step)));
+            }
+        }
+        return sb.toString();
+    }
+}
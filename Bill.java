@@ -3,18 +3,27 @@ import java.util.*;
 public class Bill {
     private final int orderId;
     private final List<OrderItem> items;
-    private final double subtotal;
-    private final double discount;
-    private final double tax;
-    private final double total;
+    // All amounts in cents (see Money)
+    private final long subtotal;
+    private final long discount;
+    private final long tax;
+    private final long total;
+    // Receipt lines printed after the total, e.g. the table number; not part of the amounts
+    private final List<String> footerLines;
 
-    public Bill(int orderId, List<OrderItem> items, double subtotal, double discount, double tax, double total) {
+    public Bill(int orderId, List<OrderItem> items, long subtotal, long discount, long tax, long total) {
+        this(orderId, items, subtotal, discount, tax, total, Collections.emptyList());
+    }
+
+    public Bill(int orderId, List<OrderItem> items, long subtotal, long discount, long tax, long total,
+                List<String> footerLines) {
         this.orderId = orderId;
         this.items = new ArrayList<>(items);
         this.subtotal = subtotal;
         this.discount = discount;
         this.tax = tax;
         this.total = total;
+        this.footerLines = footerLines.isEmpty() ? Collections.emptyList() : List.copyOf(footerLines);
     }
 
     public int getOrderId() {
@@ -25,19 +34,39 @@ public class Bill {
         return Collections.unmodifiableList(items);
     }
 
-    public double getSubtotal() {
+    public List<String> getFooterLines() {
+        return footerLines;
+    }
+
+    public long getSubtotalCents() {
         return subtotal;
     }
 
-    public double getDiscount() {
+    public long getDiscountCents() {
         return discount;
     }
 
-    public double getTax() {
+    public long getTaxCents() {
         return tax;
     }
 
-    public double getTotal() {
+    public long getTotalCents() {
         return total;
     }
-}
\ No newline at end of file
+
+    public double getSubtotal() {
+        return Money.toDouble(subtotal);
+    }
+
+    public double getDiscount() {
+        return Money.toDouble(discount);
+    }
+
+    public double getTax() {
+        return Money.toDouble(tax);
+    }
+
+    public double getTotal() {
+        return Money.toDouble(total);
+    }
+}
@@ -9,12 +9,24 @@ public class BillGenerator {
             throw new IllegalArgumentException("Items list cannot be null or empty");
         }
 
-        double subtotal = calculator.calculateSubtotal(items);
-        double discount = calculator.calculateDiscount(items);
-        double afterDiscount = subtotal - discount;
-        double tax = calculator.calculateTax(afterDiscount);
-        double total = afterDiscount + tax;
+        return generateBill(orderId, calculator.price(items));
+    }
+
+    // Builds the bill from an order that was already priced, without recalculating
+    public Bill generateBill(int orderId, PricedOrder priced) {
+        return generateBill(orderId, priced, List.of());
+    }
+
+    // Same, with extra receipt lines printed after the total
+    public Bill generateBill(int orderId, PricedOrder priced, List<String> footerLines) {
+        if (priced == null) {
+            throw new IllegalArgumentException("Priced order cannot be null");
+        }
+        if (priced.getItems().isEmpty()) {
+            throw new IllegalArgumentException("Items list cannot be null or empty");
+        }
 
-        return new Bill(orderId, items, subtotal, discount, tax, total);
+        return new Bill(orderId, priced.getItems(), priced.getSubtotalCents(), priced.getDiscountCents(),
+            priced.getTaxCents(), priced.getTotalCents(), footerLines);
     }
 }
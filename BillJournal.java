@@ -0,0 +1,403 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable audit trail for bills, usable anywhere a BillPrinter is.
+ *
+ * Bills are appended in a compact binary form to fixed-size memory-mapped segment files
+ * (bills-000001.journal, bills-000002.journal, ...). A full segment is forced to disk and
+ * a new one is started. Appends only copy bytes into the mapping; a background thread
+ * forces the current segment every flush interval, or as soon as a group of records is
+ * pending, so many bills share one fsync.
+ *
+ * Record layout: [int payloadLength][int crc32c(payload)][payload]. A zero length marks
+ * the end of a segment. On startup the newest segment is scanned: the first record
+ * with a bad length or checksum is the torn tail of a crash, and writing resumes there.
+ * If that segment holds no good record yet, the sequence carries on from the last good
+ * record of the segments before it.
+ */
+public class BillJournal implements BillPrinter, Closeable {
+    private static final int MAGIC = 0x424A4E4C; // "BJNL"
+    private static final int VERSION = 1;
+    private static final int SEGMENT_HEADER = 8;
+    private static final int RECORD_HEADER = 8;
+    private static final int FIXED_PAYLOAD = 8 + 4 + 4 * 8 + 4;  // sequence, order id, amounts, item count
+    private static final int FIXED_ITEM = 4 + 8 + 4 + 2;          // quantity, unit price, categories, text length
+    private static final String PREFIX = "bills-";
+    private static final String SUFFIX = ".journal";
+    private static final int MAX_TEXT_BYTES = 0xFFFF;  // item text length is stored as an unsigned short
+    private static final int WIPE_CHUNK = 4096;
+    // One per thread, reset before each use: appends and reads may run on different threads
+    private static final ThreadLocal<CRC32C> CRC = ThreadLocal.withInitial(CRC32C::new);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int groupCommitSize;
+    private final ScheduledExecutorService flusher;
+
+    private Segment current;
+    private long nextSequence = 1;
+    private int pending;
+    private boolean flushQueued;
+    private boolean closed;
+
+    public BillJournal(Path directory) {
+        this(directory, 16 * 1024 * 1024, 64, 10);
+    }
+
+    public BillJournal(Path directory, int segmentSize, int groupCommitSize, long flushIntervalMillis) {
+        if (directory == null) {
+            throw new IllegalArgumentException("Journal directory cannot be null");
+        }
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("Segment size must be at least 4096 bytes");
+        }
+        if (groupCommitSize <= 0 || flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Group commit size and flush interval must be positive");
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.groupCommitSize = groupCommitSize;
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open bill journal in " + directory, e);
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bill-journal-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void print(Bill bill) {
+        if (bill == null) {
+            // Same contract as the other printers: report it and carry on. Nothing is recorded.
+            Log.warn("[BillJournal] Bill is null");
+            return;
+        }
+        List<OrderItem> items = bill.getItems();
+        byte[][] texts = new byte[items.size()][];
+        int payloadSize = FIXED_PAYLOAD;
+        for (int i = 0; i < texts.length; i++) {
+            texts[i] = items.get(i).getMenuItem().getDescription().getBytes(StandardCharsets.UTF_8);
+            if (texts[i].length > MAX_TEXT_BYTES) {
+                throw new IllegalArgumentException("Item description is longer than " + MAX_TEXT_BYTES + " bytes");
+            }
+            payloadSize += FIXED_ITEM + texts[i].length;
+        }
+        if (SEGMENT_HEADER + RECORD_HEADER + payloadSize + 4 > segmentSize) {
+            throw new IllegalArgumentException("Bill is too large for a journal segment");
+        }
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Bill journal is closed");
+            }
+            // Keep room for the zero end-of-segment marker
+            if (current.buffer.remaining() < RECORD_HEADER + payloadSize + 4) {
+                roll();
+            }
+            MappedByteBuffer buf = current.buffer;
+            int recordStart = buf.position();
+            buf.position(recordStart + RECORD_HEADER);
+            buf.putLong(nextSequence++);
+            buf.putInt(bill.getOrderId());
+            buf.putLong(bill.getSubtotalCents());
+            buf.putLong(bill.getDiscountCents());
+            buf.putLong(bill.getTaxCents());
+            buf.putLong(bill.getTotalCents());
+            buf.putInt(items.size());
+            for (int i = 0; i < texts.length; i++) {
+                OrderItem item = items.get(i);
+                buf.putInt(item.getQuantity());
+                buf.putLong(item.getMenuItem().getPriceCents());
+                buf.putInt(item.getMenuItem().getCategoryMask());
+                buf.putShort((short) texts[i].length);
+                buf.put(texts[i]);
+            }
+            // Checksum and length last, so a torn write never looks like a complete record
+            buf.putInt(recordStart + 4, checksum(buf, recordStart + RECORD_HEADER, payloadSize));
+            buf.putInt(recordStart, payloadSize);
+
+            if (++pending >= groupCommitSize && !flushQueued) {
+                flushQueued = true;
+                flusher.execute(this::flush);
+            }
+        }
+    }
+
+    // Forces everything appended so far to disk
+    public void flush() {
+        MappedByteBuffer toForce;
+        synchronized (this) {
+            flushQueued = false;
+            if (closed || pending == 0) {
+                return;
+            }
+            pending = 0;
+            toForce = current.buffer;
+        }
+        toForce.force();
+    }
+
+    // Sequence number of the last bill appended (or recovered), 0 when the journal is empty
+    public synchronized long getLastSequence() {
+        return nextSequence - 1;
+    }
+
+    // Reads every valid bill back, oldest first
+    public List<Bill> readAll() {
+        flush();
+        List<Bill> bills = new ArrayList<>();
+        try {
+            for (Path file : segmentFiles()) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                    if (!validHeader(buf)) continue;
+                    int end;
+                    while ((end = nextRecordEnd(buf)) > 0) {
+                        bills.add(decode(buf));
+                        buf.position(end);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read bill journal", e);
+        }
+        return bills;
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        flusher.shutdown();
+        current.buffer.force();
+        current.close();
+    }
+
+    // ===== Segments =====
+
+    private void recover() throws IOException {
+        List<Path> files = segmentFiles();
+        if (files.isEmpty()) {
+            current = Segment.create(directory.resolve(name(1)), 1, segmentSize);
+            return;
+        }
+
+        Path last = files.get(files.size() - 1);
+        int index = indexOf(last);
+        Segment segment = Segment.open(last, index);
+        MappedByteBuffer buf = segment.buffer;
+        if (!validHeader(buf)) {
+            // A crash right after roll() can leave a segment whose header never reached disk
+            if (!isBlank(buf, SEGMENT_HEADER)) {
+                segment.close();
+                throw new IOException("Not a bill journal segment: " + last);
+            }
+            segment.close();
+            Files.delete(last);
+            segment = Segment.create(last, index, segmentSize);
+            buf = segment.buffer;
+        }
+        long lastSequence = scanToEnd(buf);
+        wipeTail(buf);
+        for (int i = files.size() - 2; lastSequence == 0 && i >= 0; i--) {
+            lastSequence = lastSequenceIn(files.get(i));
+        }
+        current = segment;
+        nextSequence = lastSequence + 1;
+    }
+
+    // Leaves buf just past its last good record; returns that record's sequence, or 0 if none
+    private static long scanToEnd(ByteBuffer buf) {
+        long lastSequence = 0;
+        int end;
+        while ((end = nextRecordEnd(buf)) > 0) {
+            lastSequence = buf.getLong(buf.position() + RECORD_HEADER);
+            buf.position(end);
+        }
+        return lastSequence;
+    }
+
+    private static long lastSequenceIn(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return validHeader(buf) ? scanToEnd(buf) : 0;
+        }
+    }
+
+    // Zeroes whatever a crash left behind the last good record. Appends are sequential,
+    // so the dirty tail ends at the first chunk that is already blank.
+    private static void wipeTail(MappedByteBuffer buf) {
+        byte[] zeros = new byte[WIPE_CHUNK];
+        int position = buf.position();
+        while (position < buf.limit()) {
+            int length = Math.min(WIPE_CHUNK, buf.limit() - position);
+            ByteBuffer chunk = buf.duplicate();
+            chunk.position(position).limit(position + length);
+            if (isBlank(chunk, length)) {
+                return;
+            }
+            buf.put(position, zeros, 0, length);
+            position += length;
+        }
+    }
+
+    // True when the first length bytes from the buffer's position are all zero
+    private static boolean isBlank(ByteBuffer buf, int length) {
+        int start = buf.position();
+        if (buf.limit() - start < length) {
+            length = buf.limit() - start;
+        }
+        int i = 0;
+        for (; i + 8 <= length; i += 8) {
+            if (buf.getLong(start + i) != 0) return false;
+        }
+        for (; i < length; i++) {
+            if (buf.get(start + i) != 0) return false;
+        }
+        return true;
+    }
+
+    private void roll() {
+        Segment old = current;
+        old.buffer.force();
+        old.close();
+        try {
+            current = Segment.create(directory.resolve(name(old.index + 1)), old.index + 1, segmentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create bill journal segment", e);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : stream) {
+                if (indexOf(file) > 0) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(Comparator.comparingInt(BillJournal::indexOf));
+        return files;
+    }
+
+    private static String name(int index) {
+        return PREFIX + String.format("%06d", index) + SUFFIX;
+    }
+
+    // Index from a bills-NNNNNN.journal name, or -1 for any other file matching the glob
+    private static int indexOf(Path file) {
+        String fileName = file.getFileName().toString();
+        String digits = fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length());
+        if (digits.isEmpty() || digits.length() > 9) {
+            return -1;
+        }
+        for (int i = 0; i < digits.length(); i++) {
+            if (!Character.isDigit(digits.charAt(i))) {
+                return -1;
+            }
+        }
+        int index = Integer.parseInt(digits);
+        return index > 0 ? index : -1;
+    }
+
+    private static boolean validHeader(ByteBuffer buf) {
+        if (buf.limit() < SEGMENT_HEADER || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+            return false;
+        }
+        buf.position(SEGMENT_HEADER);
+        return true;
+    }
+
+    // End offset of the record at the buffer's position, or -1 at the end / at a torn record
+    private static int nextRecordEnd(ByteBuffer buf) {
+        int start = buf.position();
+        if (buf.limit() - start < RECORD_HEADER) return -1;
+        int length = buf.getInt(start);
+        if (length < FIXED_PAYLOAD || length > buf.limit() - start - RECORD_HEADER) return -1;
+        if (buf.getInt(start + 4) != checksum(buf, start + RECORD_HEADER, length)) return -1;
+        return start + RECORD_HEADER + length;
+    }
+
+    private static int checksum(ByteBuffer buf, int offset, int length) {
+        CRC32C crc = CRC.get();
+        crc.reset();
+        ByteBuffer slice = buf.duplicate();
+        slice.limit(offset + length).position(offset);
+        crc.update(slice);
+        return (int) crc.getValue();
+    }
+
+    private static Bill decode(ByteBuffer record) {
+        ByteBuffer buf = record.duplicate();
+        buf.position(record.position() + RECORD_HEADER);
+        buf.getLong(); // sequence
+        int orderId = buf.getInt();
+        long subtotal = buf.getLong();
+        long discount = buf.getLong();
+        long tax = buf.getLong();
+        long total = buf.getLong();
+        int count = buf.getInt();
+        List<OrderItem> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int quantity = buf.getInt();
+            long unitPrice = buf.getLong();
+            int categories = buf.getInt();
+            byte[] text = new byte[buf.getShort() & 0xFFFF];
+            buf.get(text);
+            items.add(new OrderItem(new RecordedMenuItem(new String(text, StandardCharsets.UTF_8), unitPrice, categories), quantity));
+        }
+        return new Bill(orderId, items, subtotal, discount, tax, total);
+    }
+
+    private static final class Segment {
+        final int index;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+
+        private Segment(int index, FileChannel channel, MappedByteBuffer buffer) {
+            this.index = index;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment create(Path file, int index, int size) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC).putInt(VERSION);
+            return new Segment(index, channel, buffer);
+        }
+
+        static Segment open(Path file, int index) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(index, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot close bill journal segment", e);
+            }
+        }
+    }
+}
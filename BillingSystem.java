@@ -7,8 +7,13 @@ public class BillingSystem {
     private BillPrinter printer;
 
     private BillingSystem() {
+        this(new ConsoleBillPrinter());
+    }
+
+    // Independent instance, e.g. one per ShardedRuntime shard; most code uses getInstance()
+    public BillingSystem(BillPrinter printer) {
         this.generator = new BillGenerator();
-        this.printer = new ConsoleBillPrinter();
+        this.printer = printer;
     }
 
     public static BillingSystem getInstance() {
@@ -24,11 +29,22 @@ public class BillingSystem {
     }
 
     public void generateAndPrintBill(int orderId, List<OrderItem> items, OrderCalculator calculator) {
-        Bill bill = generator.generateBill(orderId, items, calculator);
+        print(generator.generateBill(orderId, items, calculator));
+    }
+
+    public void generateAndPrintBill(int orderId, PricedOrder priced) {
+        print(generator.generateBill(orderId, priced));
+    }
+
+    public void generateAndPrintBill(int orderId, PricedOrder priced, String footerLine) {
+        print(generator.generateBill(orderId, priced, List.of(footerLine)));
+    }
+
+    private void print(Bill bill) {
         if (printer != null) {
             printer.print(bill);
         } else {
-            System.out.println("No printer configured for bill printing");
+            Log.warn("No printer configured for bill printing");
         }
     }
 }
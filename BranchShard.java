@@ -0,0 +1,108 @@
+import java.util.*;
+
+/**
+ * A complete, independent restaurant branch: its own menu, notifier, kitchens,
+ * waiters, calculator, payment handler, order registry and billing. Nothing is
+ * shared with other shards except the read-only menu and the variant cache, so
+ * shards scale with cores (or, behind ShardServer, with JVMs).
+ */
+public class BranchShard implements OrderShard {
+    private final String id;
+    private final Menu menu;
+    private final PaymentHandler paymentHandler = new PaymentHandler();
+    private final OrderNotifier notifier = new OrderNotifier();
+    private final OrderCalculator calculator = new OrderCalculator(14.0);
+    private final OrderRegistry registry = new OrderRegistry();
+    private final BillingSystem billing;
+    private final KitchenRouter kitchens;
+
+    public BranchShard(String id, Menu menu, BillPrinter printer) {
+        if (id == null || menu == null) {
+            throw new IllegalArgumentException("Shard id and menu cannot be null");
+        }
+        this.id = id;
+        this.menu = menu;
+        this.billing = new BillingSystem(printer);
+        calculator.addDiscountStrategy(new PizzaDiscount());
+        calculator.addDiscountStrategy(new MeatDiscount());
+
+        // Same station layout as MainController, named per shard
+        kitchens = new KitchenRouter(new Kitchen(id + "-K1", "Main Kitchen"));
+        kitchens.route(PizzaItem.class, new Kitchen(id + "-K2", "Pizza Station"));
+        kitchens.route(BurgerItem.class, new Kitchen(id + "-K3", "Grill Station"));
+        notifier.registerObserver(kitchens);
+        OrderSubscription dineIn = OrderSubscription.forTypes(OrderType.DINE_IN);
+        notifier.registerObserver(new Waiter(id + "-W1", 1), dineIn.withTables(1, 5));
+        notifier.registerObserver(new Waiter(id + "-W2", 6), dineIn.withTables(6, 10));
+        notifier.registerObserver(new Waiter(id + "-W3", null), OrderSubscription.forTypes(OrderType.TAKEAWAY));
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public OrderSnapshot process(OrderScript script) {
+        OrderTemplate order = buildOrder(script);
+        try {
+            order.processOrder();
+            // Stand-in cooks: clear this order's tickets so the stations stay bounded
+            for (Kitchen kitchen : kitchens.getKitchens()) {
+                KitchenTicket ticket;
+                while ((ticket = kitchen.prepareNextTicket()) != null) {
+                    kitchen.complete(ticket);
+                }
+            }
+            return OrderSnapshot.of(order);
+        } finally {
+            registry.remove(order.getOrderId());
+        }
+    }
+
+    public OrderNotifier getNotifier() {
+        return notifier;
+    }
+
+    public KitchenRouter getKitchens() {
+        return kitchens;
+    }
+
+    public OrderRegistry getRegistry() {
+        return registry;
+    }
+
+    private OrderTemplate buildOrder(OrderScript script) {
+        OrderTemplate order;
+        int orderId = script.getOrderId();
+        switch (script.getOrderType().toLowerCase()) {
+            case "dinein":
+                order = orderId > 0
+                    ? new DineInOrder(orderId, paymentHandler, notifier, calculator)
+                    : new DineInOrder(paymentHandler, notifier, calculator);
+                break;
+            case "takeaway":
+                order = orderId > 0
+                    ? new TakeawayOrder(orderId, paymentHandler, notifier, calculator)
+                    : new TakeawayOrder(paymentHandler, notifier, calculator);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid order type: " + script.getOrderType());
+        }
+        order.setBillingSystem(billing);
+        order.setCustomerName(script.getCustomerName());
+        for (OrderScript.Line line : script.getLines()) {
+            MenuItem item = menu.findItem(line.getItemName());
+            if (item == null) {
+                throw new IllegalArgumentException("Item not on menu: " + line.getItemName());
+            }
+            List<MenuModifier> extras = new ArrayList<>(2);
+            if (line.hasExtraCheese()) extras.add(MenuModifier.EXTRA_CHEESE);
+            if (line.hasSauce()) extras.add(MenuModifier.SAUCE);
+            order.addItem(new OrderItem(MenuVariantCache.getInstance().variant(item, extras), line.getQuantity()));
+        }
+        order.setPaymentStrategy(script.createPayment());
+        registry.register(order);
+        return order;
+    }
+}
@@ -0,0 +1,237 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * BillPrinter that renders the whole receipt into a reusable per-thread byte buffer
+ * and hands it to the output in one write. Same layout as ConsoleBillPrinter, but the
+ * fixed parts are pre-encoded and amounts are formatted by hand, so printing a bill
+ * takes no format parsing, no per-line locking and no garbage once the buffer has grown.
+ */
+public class BufferedBillPrinter implements BillPrinter {
+    private static final int LABEL_WIDTH = 40;
+    private static final int AMOUNT_WIDTH = 8;
+
+    // Precompiled layout
+    private static final byte[] RULE = bytes("------------------------------\n");
+    private static final byte[] HEADER = bytes("BILL - Order #");
+    private static final byte[] BLANK_RULE = bytes("\n------------------------------\n");
+    private static final byte[] SUBTOTAL = bytes("SUBTOTAL");
+    private static final byte[] DISCOUNT = bytes("DISCOUNT");
+    private static final byte[] TAX = bytes("TAX");
+    private static final byte[] TOTAL = bytes("TOTAL");
+    private static final byte[] NULL_BILL = bytes("Bill is null\n");
+
+    private static final ThreadLocal<RenderBuffer> BUFFERS = ThreadLocal.withInitial(RenderBuffer::new);
+
+    private final OutputStream out;
+    private final WritableByteChannel channel;
+
+    public BufferedBillPrinter(OutputStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream cannot be null");
+        }
+        this.out = out;
+        this.channel = null;
+    }
+
+    public BufferedBillPrinter(WritableByteChannel channel) {
+        if (channel == null) {
+            throw new IllegalArgumentException("Channel cannot be null");
+        }
+        this.out = null;
+        this.channel = channel;
+    }
+
+    @Override
+    public void print(Bill bill) {
+        Log.flushIfWritingTo(out);
+        RenderBuffer buf = BUFFERS.get();
+        buf.reset();
+        if (bill == null) {
+            buf.append(NULL_BILL);
+        } else {
+            render(bill, buf);
+        }
+        write(buf);
+    }
+
+    // Renders into the caller's buffer; exposed so other sinks can reuse the layout
+    void render(Bill bill, RenderBuffer buf) {
+        buf.append(RULE);
+        buf.append(HEADER);
+        buf.appendLong(bill.getOrderId());
+        buf.append((byte) '\n');
+        buf.append(RULE);
+        buf.append((byte) '\n');
+
+        for (OrderItem item : bill.getItems()) {
+            String description = item.getDescription();
+            buf.appendText(description);
+            line(buf, description.length(), item.getSubtotalCents());
+        }
+
+        buf.append(BLANK_RULE);
+        amountLine(buf, SUBTOTAL, bill.getSubtotalCents());
+        amountLine(buf, DISCOUNT, bill.getDiscountCents());
+        amountLine(buf, TAX, bill.getTaxCents());
+        buf.append(BLANK_RULE);
+        amountLine(buf, TOTAL, bill.getTotalCents());
+        buf.append(BLANK_RULE);
+        for (String footerLine : bill.getFooterLines()) {
+            buf.appendText(footerLine);
+            buf.append((byte) '\n');
+        }
+    }
+
+    private void amountLine(RenderBuffer buf, byte[] label, long cents) {
+        buf.append(label);
+        line(buf, label.length, cents);
+    }
+
+    // Pads a label of labelChars chars to LABEL_WIDTH, then writes the right-aligned amount.
+    // Counted in chars like ConsoleBillPrinter, not in encoded bytes, so non-ASCII lines align the same.
+    private void line(RenderBuffer buf, int labelChars, long cents) {
+        buf.pad(LABEL_WIDTH - labelChars);
+        buf.append((byte) ' ');
+        buf.pad(AMOUNT_WIDTH - RenderBuffer.amountLength(cents));
+        buf.appendAmount(cents);
+        buf.append((byte) '\n');
+    }
+
+    private void write(RenderBuffer buf) {
+        try {
+            if (out != null) {
+                synchronized (out) {
+                    out.write(buf.array(), 0, buf.length());
+                    out.flush();
+                }
+            } else {
+                ByteBuffer view = buf.view();
+                synchronized (channel) {
+                    while (view.hasRemaining()) {
+                        channel.write(view);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write bill", e);
+        }
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Growable byte buffer reused by one thread across receipts
+     */
+    static final class RenderBuffer {
+        private byte[] bytes = new byte[1024];
+        private ByteBuffer view = ByteBuffer.wrap(bytes);
+        private int length;
+
+        void reset() {
+            length = 0;
+        }
+
+        int length() {
+            return length;
+        }
+
+        byte[] array() {
+            return bytes;
+        }
+
+        ByteBuffer view() {
+            view.clear().limit(length);
+            return view;
+        }
+
+        void append(byte b) {
+            ensure(1);
+            bytes[length++] = b;
+        }
+
+        void append(byte[] src) {
+            ensure(src.length);
+            System.arraycopy(src, 0, bytes, length, src.length);
+            length += src.length;
+        }
+
+        void pad(int spaces) {
+            if (spaces <= 0) return;
+            ensure(spaces);
+            for (int i = 0; i < spaces; i++) {
+                bytes[length++] = ' ';
+            }
+        }
+
+        // ASCII is copied byte for byte; anything else falls back to UTF-8 encoding
+        void appendText(String text) {
+            ensure(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c >= 0x80) {
+                    append(text.substring(i).getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                bytes[length++] = (byte) c;
+            }
+        }
+
+        void appendLong(long value) {
+            if (value < 0) {
+                append((byte) '-');
+                value = -value;
+            }
+            int digits = digitCount(value);
+            ensure(digits);
+            for (int i = length + digits - 1; i >= length; i--) {
+                bytes[i] = (byte) ('0' + value % 10);
+                value /= 10;
+            }
+            length += digits;
+        }
+
+        // Cents as "1234.05"
+        void appendAmount(long cents) {
+            if (cents < 0) {
+                append((byte) '-');
+                cents = -cents;
+            }
+            appendLong(cents / Money.MINOR_UNITS);
+            long fraction = cents % Money.MINOR_UNITS;
+            ensure(3);
+            bytes[length++] = '.';
+            bytes[length++] = (byte) ('0' + fraction / 10);
+            bytes[length++] = (byte) ('0' + fraction % 10);
+        }
+
+        static int amountLength(long cents) {
+            int sign = cents < 0 ? 1 : 0;
+            return sign + digitCount(Math.abs(cents) / Money.MINOR_UNITS) + 3;
+        }
+
+        private static int digitCount(long value) {
+            int digits = 1;
+            while (value >= 10) {
+                value /= 10;
+                digits++;
+            }
+            return digits;
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, length + extra)];
+                System.arraycopy(bytes, 0, grown, 0, length);
+                bytes = grown;
+                view = ByteBuffer.wrap(bytes);
+            }
+        }
+    }
+}
@@ -3,10 +3,12 @@
 public class BurgerItem implements MenuItem {
     private final String name;
     private final double basePrice;
+    private final int categoryMask;
 
     public BurgerItem(String name, double basePrice) {
         this.name = name;
         this.basePrice = basePrice;
+        this.categoryMask = ItemCategory.BURGER.mask() | ItemCategory.meatMaskFor(name);
     }
 
     @Override
@@ -18,4 +20,9 @@ public class BurgerItem implements MenuItem {
     public double getPrice() {
         return basePrice;
     }
-}
\ No newline at end of file
+
+    @Override
+    public int getCategoryMask() {
+        return categoryMask;
+    }
+}
@@ -9,12 +9,12 @@ public class CashPayment implements PaymentStrategy {
     }
 
     @Override
-    public boolean pay(double amount) {
-        if (amount <= 0) {
-            System.out.println("[CashPayment] Invalid amount: " + amount);
+    public boolean pay(long amountCents) {
+        if (amountCents <= 0) {
+            Log.warn(() -> "[CashPayment] Invalid amount: " + Money.format(amountCents));
             return false;
         }
-        System.out.println("[CashPayment] Received cash payment of " + format(amount) 
+        Log.info(() -> "[CashPayment] Received cash payment of " + Money.format(amountCents) 
             + " by cashier " + cashierId);
         return true;
     }
@@ -24,12 +24,14 @@ public class CashPayment implements PaymentStrategy {
         return "Cash";
     }
 
-    public String getCashierId() {
-        return cashierId;
+    @Override
+    public boolean reverse(long amountCents) {
+        Log.info(() -> "[CashPayment] Returning " + Money.format(amountCents) + " by cashier " + cashierId);
+        return true;
     }
 
-    private String format(double val) {
-        return String.format("%.2f", val);
+    public String getCashierId() {
+        return cashierId;
     }
 }
 
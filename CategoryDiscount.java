@@ -0,0 +1,49 @@
+import java.math.RoundingMode;
+import java.util.*;
+
+/**
+ * Percentage off every line tagged with any of the given categories.
+ * DiscountEngine recognizes these rules and evaluates all of them in one pass.
+ */
+public abstract class CategoryDiscount implements DiscountStrategy {
+    private final int categoryMask;
+    private final double percent;
+    private final long ratePpm;
+
+    protected CategoryDiscount(double percent, ItemCategory... categories) {
+        if (percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("Discount percentage must be between 0 and 100");
+        }
+        this.percent = percent;
+        this.ratePpm = Money.percentToPartsPerMillion(percent);
+        this.categoryMask = ItemCategory.maskOf(categories);
+    }
+
+    @Override
+    public double apply(List<OrderItem> items) {
+        return Money.toDouble(applyCents(items));
+    }
+
+    @Override
+    public long applyCents(List<OrderItem> items) {
+        long eligibleCents = 0;
+        for (OrderItem it : items) {
+            if ((it.getCategoryMask() & categoryMask) != 0) {
+                eligibleCents += it.getSubtotalCents();
+            }
+        }
+        return Money.percentOf(eligibleCents, ratePpm, RoundingMode.HALF_UP);
+    }
+
+    public int getCategoryMask() {
+        return categoryMask;
+    }
+
+    public double getPercent() {
+        return percent;
+    }
+
+    public long getRatePpm() {
+        return ratePpm;
+    }
+}
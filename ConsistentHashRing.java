@@ -0,0 +1,68 @@
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Consistent-hash ring mapping routing keys (branch or order ids) to nodes.
+ * Each node is placed at `replicas` virtual points so keys spread evenly, and
+ * adding or removing a node only moves the keys next to its points; the other
+ * nodes keep theirs. Reads take no lock; changes swap in a new ring.
+ */
+public class ConsistentHashRing<T> {
+    private final int replicas;
+    private volatile NavigableMap<Long, T> ring = new TreeMap<>();
+
+    public ConsistentHashRing(int replicas) {
+        if (replicas <= 0) {
+            throw new IllegalArgumentException("Replicas must be positive");
+        }
+        this.replicas = replicas;
+    }
+
+    public synchronized void add(String nodeId, T node) {
+        if (nodeId == null || node == null) {
+            throw new IllegalArgumentException("Node id and node cannot be null");
+        }
+        TreeMap<Long, T> next = new TreeMap<>(ring);
+        for (int i = 0; i < replicas; i++) {
+            next.put(hash(nodeId + "#" + i), node);
+        }
+        ring = next;
+    }
+
+    public synchronized void remove(String nodeId) {
+        TreeMap<Long, T> next = new TreeMap<>(ring);
+        for (int i = 0; i < replicas; i++) {
+            next.remove(hash(nodeId + "#" + i));
+        }
+        ring = next;
+    }
+
+    // First node clockwise from the key's point
+    public T get(String key) {
+        NavigableMap<Long, T> current = ring;
+        if (current.isEmpty()) {
+            throw new IllegalStateException("Hash ring has no nodes");
+        }
+        Map.Entry<Long, T> entry = current.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : current.firstEntry().getValue();
+    }
+
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    // FNV-1a over the UTF-8 bytes, then a 64-bit finalizer to spread nearby keys
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
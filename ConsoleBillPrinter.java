@@ -1,6 +1,10 @@
 public class ConsoleBillPrinter implements BillPrinter {
+    private static final int LABEL_WIDTH = 40;
+    private static final int AMOUNT_WIDTH = 8;
+
     @Override
     public void print(Bill bill) {
+        Log.flushIfWritingTo(System.out);
         if (bill == null) {
             System.out.println("Bill is null");
             return;
@@ -11,15 +15,34 @@ public class ConsoleBillPrinter implements BillPrinter {
         System.out.println("------------------------------\n");
 
         for (OrderItem item : bill.getItems()) {
-            System.out.printf("%-40s %8.2f\n", item.getDescription(), item.getSubtotal());
+            printLine(item.getDescription(), item.getSubtotalCents());
         }
 
         System.out.println("\n------------------------------");
-        System.out.printf("%-40s %8.2f\n", "SUBTOTAL", bill.getSubtotal());
-        System.out.printf("%-40s %8.2f\n", "DISCOUNT", bill.getDiscount());
-        System.out.printf("%-40s %8.2f\n", "TAX", bill.getTax());
+        printLine("SUBTOTAL", bill.getSubtotalCents());
+        printLine("DISCOUNT", bill.getDiscountCents());
+        printLine("TAX", bill.getTaxCents());
         System.out.println("\n------------------------------");
-        System.out.printf("%-40s %8.2f\n", "TOTAL", bill.getTotal());
+        printLine("TOTAL", bill.getTotalCents());
         System.out.println("\n------------------------------");
+        for (String footerLine : bill.getFooterLines()) {
+            System.out.println(footerLine);
+        }
+    }
+
+    // Same layout as "%-40s %8.2f", built without a format string
+    private void printLine(String label, long cents) {
+        StringBuilder line = new StringBuilder(LABEL_WIDTH + AMOUNT_WIDTH + 1);
+        line.append(label);
+        while (line.length() < LABEL_WIDTH) {
+            line.append(' ');
+        }
+        line.append(' ');
+        int amountStart = line.length();
+        Money.appendTo(line, cents);
+        while (line.length() - amountStart < AMOUNT_WIDTH) {
+            line.insert(amountStart, ' ');
+        }
+        System.out.println(line);
     }
-}
\ No newline at end of file
+}
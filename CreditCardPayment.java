@@ -1,5 +1,6 @@
 public class CreditCardPayment implements PaymentStrategy {
     private final String cardNumber;
+    private final String maskedCardNumber;
     private final String authorizationCode;
 
     public CreditCardPayment(String cardNumber, String authorizationCode) {
@@ -9,18 +10,19 @@ public class CreditCardPayment implements PaymentStrategy {
         if (authorizationCode == null || authorizationCode.trim().isEmpty()) {
             throw new IllegalArgumentException("Authorization code cannot be null or empty");
         }
-        this.cardNumber = maskCardNumber(cardNumber);
+        this.cardNumber = cardNumber.trim();
+        this.maskedCardNumber = maskCardNumber(this.cardNumber);
         this.authorizationCode = authorizationCode;
     }
 
     @Override
-    public boolean pay(double amount) {
-        if (amount <= 0) {
-            System.out.println("[CreditCardPayment] Invalid amount: " + amount);
+    public boolean pay(long amountCents) {
+        if (amountCents <= 0) {
+            Log.warn(() -> "[CreditCardPayment] Invalid amount: " + Money.format(amountCents));
             return false;
         }
-        System.out.println("[CreditCardPayment] Simulating authorization for " + format(amount)
-            + " using card " + cardNumber + " auth=" + authorizationCode);
+        Log.info(() -> "[CreditCardPayment] Simulating authorization for " + Money.format(amountCents)
+            + " using card " + maskedCardNumber + " auth=" + authorizationCode);
         // Simulate 95% success rate
         return Math.random() > 0.05;
     }
@@ -30,15 +32,28 @@ public class CreditCardPayment implements PaymentStrategy {
         return "Credit Card";
     }
 
+    @Override
+    public boolean supportsBatchSettlement() {
+        return true;
+    }
+
+    @Override
+    public PaymentAuthorization createAuthorization(long amountCents) {
+        return new PaymentAuthorization(getPaymentMethodName(), cardNumber, authorizationCode, amountCents);
+    }
+
+    @Override
+    public boolean reverse(long amountCents) {
+        Log.info(() -> "[CreditCardPayment] Voiding authorization of " + Money.format(amountCents)
+            + " on card " + maskedCardNumber);
+        return true;
+    }
+
     private String maskCardNumber(String cardNumber) {
         if (cardNumber.length() <= 4) {
             return "****";
         }
         return "****" + cardNumber.substring(cardNumber.length() - 4);
     }
-
-    private String format(double val) {
-        return String.format("%.2f", val);
-    }
 }
 
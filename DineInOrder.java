@@ -1,28 +1,46 @@
 import java.util.Random;
 
 public class DineInOrder extends OrderTemplate {
-    protected final int tableNumber = new Random().nextInt(10) + 1;
-    double subtotal = 0;
+    // Tables in the dining room, numbered from 1; MainController splits them between the floor waiters
+    public static final int TABLE_COUNT = 10;
+
+    protected final int tableNumber = new Random().nextInt(TABLE_COUNT) + 1;
+    long subtotal = 0;
 
     public DineInOrder(PaymentHandler paymentHandler, OrderNotifier notifier, OrderCalculator calculator) {
         super(paymentHandler, notifier, calculator);
     }
 
+    public DineInOrder(int orderId, PaymentHandler paymentHandler, OrderNotifier notifier, OrderCalculator calculator) {
+        super(orderId, paymentHandler, notifier, calculator);
+    }
+
+    @Override
+    public int getTableNumber() {
+        return tableNumber;
+    }
+
+    @Override
+    public OrderType getOrderType() {
+        return OrderType.DINE_IN;
+    }
+
     @Override
     protected void calculateTotal() {
-        subtotal = calculator.calculateSubtotal(items);
-        double discount = calculator.calculateDiscount(items);
-        double afterDiscount = Math.max(0.0, subtotal - discount);
-        double tax = calculator.calculateTax(afterDiscount);
-        double total = afterDiscount + tax;
-        System.out.printf("[DineInOrder #%d] Subtotal=%.2f Discount=%.2f Tax=%.2f => Total=%.2f\n", 
-            getOrderId(), subtotal, discount, tax, total);
+        PricedOrder priced = getPricedOrder();
+        subtotal = priced.getSubtotalCents();
+        long discount = priced.getDiscountCents();
+        long tax = priced.getTaxCents();
+        long total = priced.getTotalCents();
+        Log.info(() -> "[DineInOrder #" + getOrderId() + "] Subtotal=" + Money.format(subtotal)
+            + " Discount=" + Money.format(discount) + " Tax=" + Money.format(tax)
+            + " => Total=" + Money.format(total));
     }
 
     @Override
     protected boolean handlePayment() {
         if (paymentStrategy == null) return true;
-        return paymentHandler.processPayment(calculator.calculateTotal(items), paymentStrategy);
+        return paymentHandler.processPayment(getPricedOrder().getTotalCents(), paymentStrategy);
     }
 
     @Override
@@ -32,7 +50,6 @@ public class DineInOrder extends OrderTemplate {
 
     @Override
     protected void printBill() {
-        BillingSystem.getInstance().generateAndPrintBill(getOrderId(), items, calculator);
-        System.out.println("table number: " + tableNumber);
+        getBillingSystem().generateAndPrintBill(getOrderId(), getPricedOrder(), "table number: " + tableNumber);
     }
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Evaluates every registered DiscountStrategy for an order.
+ * CategoryDiscount rules are fused: one pass over the lines buckets each subtotal by its
+ * category mask, then each rule sums the buckets it covers. Cost per order is
+ * O(lines + rules * 2^categories) with no string work. Any other strategy is still
+ * called through apply().
+ */
+public class DiscountEngine {
+    private static final int BUCKETS = 1 << ItemCategory.values().length;
+
+    private final List<DiscountStrategy> strategies = new CopyOnWriteArrayList<>();
+    private volatile Plan plan = new Plan(Collections.emptyList());
+    // Bumped on every plan rebuild so cached prices can tell the rules changed
+    private volatile int version;
+
+    public synchronized void addStrategy(DiscountStrategy strategy) {
+        if (strategy != null && !strategies.contains(strategy)) {
+            strategies.add(strategy);
+            rebuild();
+        }
+    }
+
+    public synchronized void removeStrategy(DiscountStrategy strategy) {
+        if (strategies.remove(strategy)) {
+            rebuild();
+        }
+    }
+
+    public synchronized void clear() {
+        strategies.clear();
+        rebuild();
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    private void rebuild() {
+        plan = new Plan(strategies);
+        version++;
+    }
+
+    public int size() {
+        return strategies.size();
+    }
+
+    public long calculateCents(List<OrderItem> items) {
+        Plan current = plan;
+        if (items == null || items.isEmpty() || current.isEmpty()) {
+            return 0;
+        }
+
+        long discount = 0;
+        if (current.ruleMasks.length > 0) {
+            long[] subtotalByMask = new long[BUCKETS];
+            for (OrderItem it : items) {
+                subtotalByMask[it.getCategoryMask() & (BUCKETS - 1)] += it.getSubtotalCents();
+            }
+            for (int r = 0; r < current.ruleMasks.length; r++) {
+                int ruleMask = current.ruleMasks[r];
+                long eligible = 0;
+                for (int mask = 1; mask < BUCKETS; mask++) {
+                    if ((mask & ruleMask) != 0) {
+                        eligible += subtotalByMask[mask];
+                    }
+                }
+                discount += Money.percentOf(eligible, current.ruleRatesPpm[r], RoundingMode.HALF_UP);
+            }
+        }
+        for (DiscountStrategy other : current.others) {
+            discount += other.applyCents(items);
+        }
+        return discount;
+    }
+
+    // Strategies flattened into arrays; rebuilt whenever the registered set changes
+    private static final class Plan {
+        final int[] ruleMasks;
+        final long[] ruleRatesPpm;
+        final DiscountStrategy[] others;
+
+        Plan(List<DiscountStrategy> strategies) {
+            List<CategoryDiscount> rules = new ArrayList<>();
+            List<DiscountStrategy> rest = new ArrayList<>();
+            for (DiscountStrategy strategy : strategies) {
+                if (strategy instanceof CategoryDiscount) {
+                    rules.add((CategoryDiscount) strategy);
+                } else {
+                    rest.add(strategy);
+                }
+            }
+            ruleMasks = new int[rules.size()];
+            ruleRatesPpm = new long[rules.size()];
+            for (int i = 0; i < rules.size(); i++) {
+                ruleMasks[i] = rules.get(i).getCategoryMask();
+                ruleRatesPpm[i] = rules.get(i).getRatePpm();
+            }
+            others = rest.toArray(new DiscountStrategy[0]);
+        }
+
+        boolean isEmpty() {
+            return ruleMasks.length == 0 && others.length == 0;
+        }
+    }
+}
@@ -2,4 +2,9 @@ import java.util.List;
 
 public interface DiscountStrategy {
     double apply(List<OrderItem> items);
+
+    // Exact discount in cents; override when the rule can compute it without doubles
+    default long applyCents(List<OrderItem> items) {
+        return Money.fromDouble(apply(items));
+    }
 }
\ No newline at end of file
@@ -12,6 +12,11 @@ public class ExtraCheeseDecorator extends MenuItemDecorator {
         return wrapped.getDescription() + " + Extra Cheese";
     }
 
+    @Override
+    public String getModifierName() {
+        return "Extra Cheese";
+    }
+
     @Override
     public double getPrice() {
         return wrapped.getPrice() + extraPrice;
@@ -0,0 +1,186 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Menu factory backed by a text file instead of hard-coded items.
+ *
+ * One item per line, "type,name,price" (type is pizza or burger; the name runs from
+ * the first comma to the last, so it may contain commas). Blank lines and lines
+ * starting with # are ignored. The file is streamed line by line and each line is
+ * split by hand, so a large catalogue costs one pass and no per-line regex.
+ *
+ * Every load produces a new immutable Menu with the next version number and swaps
+ * it in with a single reference write. createMenu() always returns the current
+ * version: an order that captured a Menu keeps it, and its items are already frozen
+ * at their prices, so a reload never blocks or reprices anything in flight. A file
+ * that fails to parse leaves the current version in place.
+ */
+public class FileMenuFactory extends MenuFactory {
+    private final Path file;
+    private final AtomicReference<Menu> current = new AtomicReference<>();
+    private long nextVersion = 1;
+    // Modification time at the last load attempt, so a broken file is reported once, not every poll
+    private FileTime attemptedModified;
+    private ScheduledExecutorService reloader;
+
+    public FileMenuFactory(Path file) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Menu file cannot be null");
+        }
+        this.file = file;
+        reload();
+    }
+
+    @Override
+    public Menu createMenu() {
+        return current.get();
+    }
+
+    public long getVersion() {
+        return current.get().getVersion();
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Parses the file into a new version and publishes it. Parsing happens before the
+     * swap and outside any lock readers take, so intake keeps using the old version
+     * until the new one is complete.
+     */
+    public synchronized Menu reload() throws IOException {
+        attemptedModified = Files.getLastModifiedTime(file);
+        Menu menu;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            menu = parse(reader, nextVersion, file.toString());
+        }
+        nextVersion++;
+        current.set(menu);
+        Log.info(() -> "[FileMenuFactory] Loaded menu v" + menu.getVersion() + " (" + menu.getItems().size()
+            + " items) from " + file);
+        return menu;
+    }
+
+    // Reloads only if the file changed since the last load attempt
+    public synchronized boolean reloadIfModified() throws IOException {
+        if (Files.getLastModifiedTime(file).equals(attemptedModified)) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    // Polls the file's modification time on a daemon thread and reloads on change
+    public synchronized void startAutoReload(long periodMillis) {
+        if (reloader != null) {
+            return;
+        }
+        reloader = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "menu-reloader");
+            t.setDaemon(true);
+            return t;
+        });
+        reloader.scheduleWithFixedDelay(() -> {
+            try {
+                reloadIfModified();
+            } catch (IOException | RuntimeException e) {
+                Log.warn(() -> "[FileMenuFactory] Reload of " + file + " failed, keeping v" + getVersion()
+                    + ": " + e.getMessage());
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopAutoReload() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+            reloader = null;
+        }
+    }
+
+    public static Menu parse(Reader reader, long version, String source) throws IOException {
+        List<MenuItem> items = new ArrayList<>();
+        parseLines(reader, source, (type, name, price, where) -> {
+            switch (type) {
+                case "pizza":
+                    items.add(new PizzaItem(name, price));
+                    break;
+                case "burger":
+                    items.add(new BurgerItem(name, price));
+                    break;
+                default:
+                    throw new IllegalArgumentException(where + ": unknown item type " + type);
+            }
+        });
+        return new Menu(version, items);
+    }
+
+    // Same file format straight into MenuCatalog columns, without a MenuItem per line
+    public static MenuCatalog parseCatalog(Reader reader, String source) throws IOException {
+        MenuCatalog.Builder builder = new MenuCatalog.Builder();
+        parseLines(reader, source, (type, name, price, where) -> {
+            switch (type) {
+                case "pizza":
+                    builder.addPizza(name, Money.fromDouble(price));
+                    break;
+                case "burger":
+                    builder.addBurger(name, Money.fromDouble(price));
+                    break;
+                default:
+                    throw new IllegalArgumentException(where + ": unknown item type " + type);
+            }
+        });
+        return builder.build();
+    }
+
+    private interface ItemLine {
+        void accept(String type, String name, double price, String where);
+    }
+
+    private static void parseLines(Reader reader, String source, ItemLine sink) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader
+            ? (BufferedReader) reader
+            : new BufferedReader(reader, 1 << 16);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            String text = line.trim();
+            if (text.isEmpty() || text.charAt(0) == '#') {
+                continue;
+            }
+            parseItem(text, source, lineNumber, sink);
+        }
+    }
+
+    private static void parseItem(String text, String source, int lineNumber, ItemLine sink) {
+        int first = text.indexOf(',');
+        int last = text.lastIndexOf(',');
+        if (first < 0 || last == first) {
+            throw new IllegalArgumentException(source + ":" + lineNumber + ": expected type,name,price");
+        }
+        String type = text.substring(0, first).trim();
+        String name = text.substring(first + 1, last).trim();
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException(source + ":" + lineNumber + ": item name is empty");
+        }
+        double price;
+        try {
+            price = Double.parseDouble(text.substring(last + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(source + ":" + lineNumber + ": invalid price", e);
+        }
+        if (price < 0) {
+            throw new IllegalArgumentException(source + ":" + lineNumber + ": price cannot be negative");
+        }
+        sink.accept(type.toLowerCase(), name, price, source + ":" + lineNumber);
+    }
+}
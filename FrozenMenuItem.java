@@ -0,0 +1,85 @@
+import java.util.*;
+
+/// Immutable, flattened snapshot of a (possibly decorated) MenuItem
+
+/**
+ * Walks a decorator chain once and keeps the result: total price, full description,
+ * the undecorated base item and the modifiers in the order they were applied.
+ * getPrice/getDescription are plain field reads, so a deep chain of extras
+ * prices the same as a bare PizzaItem.
+ */
+public final class FrozenMenuItem implements MenuItem {
+    private final MenuItem baseItem;
+    private final List<String> modifiers;
+    private final String description;
+    private final double price;
+    private final long priceCents;
+    private final int categoryMask;
+
+    private FrozenMenuItem(MenuItem baseItem, List<String> modifiers, String description, double price,
+                           int categoryMask) {
+        this.baseItem = baseItem;
+        this.modifiers = modifiers;
+        this.description = description;
+        this.price = price;
+        this.priceCents = Money.fromDouble(price);
+        this.categoryMask = categoryMask;
+    }
+
+    public static FrozenMenuItem of(MenuItem item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Menu item cannot be null");
+        }
+        if (item instanceof FrozenMenuItem) {
+            return (FrozenMenuItem) item;
+        }
+
+        // Decorators are visited outermost-first; modifiers are stored in application order
+        List<String> outerFirst = new ArrayList<>();
+        MenuItem base = item;
+        while (base instanceof MenuItemDecorator) {
+            MenuItemDecorator decorator = (MenuItemDecorator) base;
+            outerFirst.add(decorator.getModifierName());
+            base = decorator.wrapped;
+        }
+        List<String> modifiers = new ArrayList<>();
+        if (base instanceof FrozenMenuItem) {
+            FrozenMenuItem inner = (FrozenMenuItem) base;
+            modifiers.addAll(inner.modifiers);
+            base = inner.baseItem;
+        }
+        for (int i = outerFirst.size() - 1; i >= 0; i--) {
+            modifiers.add(outerFirst.get(i));
+        }
+
+        return new FrozenMenuItem(base, Collections.unmodifiableList(modifiers),
+            item.getDescription(), item.getPrice(), item.getCategoryMask());
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public double getPrice() {
+        return price;
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    @Override
+    public int getCategoryMask() {
+        return categoryMask;
+    }
+
+    public MenuItem getBaseItem() {
+        return baseItem;
+    }
+
+    public List<String> getModifiers() {
+        return modifiers;
+    }
+}
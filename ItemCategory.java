@@ -0,0 +1,28 @@
+/// Category tags for menu items, combined into an int bitmask (one bit per category)
+
+public enum ItemCategory {
+    PIZZA,
+    BURGER,
+    MEAT;
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public static int maskOf(ItemCategory... categories) {
+        int mask = 0;
+        for (ItemCategory category : categories) {
+            mask |= category.mask();
+        }
+        return mask;
+    }
+
+    // Tagging happens once when the menu is built, never while pricing an order
+    public static int meatMaskFor(String name) {
+        String lower = name.toLowerCase();
+        if (lower.contains("meat") || lower.contains("beef") || lower.contains("chicken")) {
+            return MEAT.mask();
+        }
+        return 0;
+    }
+}
@@ -6,6 +6,7 @@ public class KidsMenuFactory extends MenuFactory {
         Menu menu = new Menu();
         menu.addItem(new PizzaItem("Kids Small Margherita", 30.0));
         menu.addItem(new BurgerItem("Kids Mini Burger", 25.0));
+        menu.getIndex(); // build the lookup index once, up front
         return menu;
     }
 }
\ No newline at end of file
@@ -3,42 +3,131 @@
 // ============================================================================
 
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Kitchen observer - receives order notifications and queues them for preparation
  * Single Responsibility: Handle kitchen order processing
+ * The queue is lock-free and safe for many producers and many cooks. When this
+ * station runs dry, prepareNext steals the newest overflow ticket from the busiest peer.
  */
 public class Kitchen implements Observer {
     private final String id;
     private final String station;
-    private final Queue<OrderTemplate> orderQueue;
+    private final ConcurrentLinkedDeque<KitchenTicket> orderQueue;
+    // ConcurrentLinkedDeque.size() is O(n) and only a guess under contention
+    private final AtomicInteger queueSize = new AtomicInteger();
+    private volatile List<Kitchen> peers = Collections.emptyList();
+    private volatile int stealThreshold = 1;
 
     public Kitchen(String id, String station) {
         this.id = id;
         this.station = station;
-        this.orderQueue = new LinkedList<>();
+        this.orderQueue = new ConcurrentLinkedDeque<>();
     }
 
     @Override
     public void update(OrderTemplate order) {
-        orderQueue.offer(order);
-        System.out.println("[Kitchen " + id + "] Received order #" + order.getOrderId() + " -> queued at " + station);
+        enqueue(new KitchenTicket(order, order.getItems()));
+    }
+
+    public void enqueue(KitchenTicket ticket) {
+        orderQueue.offerLast(ticket);
+        OrderMetrics.getInstance().recordQueueDepth(id, queueSize.incrementAndGet());
+        Log.info(() -> "[Kitchen " + id + "] Received order #" + ticket.getOrder().getOrderId()
+            + " (" + ticket.getLines().size() + " lines) -> queued at " + station);
     }
 
     public OrderTemplate prepareNext() {
-        OrderTemplate order = orderQueue.poll();
-        if (order != null) {
-            System.out.println("[Kitchen " + id + "] Preparing order #" + order.getOrderId());
+        KitchenTicket ticket = prepareNextTicket();
+        return ticket != null ? ticket.getOrder() : null;
+    }
+
+    public KitchenTicket prepareNextTicket() {
+        KitchenTicket ticket = pollFirst();
+        if (ticket == null) {
+            ticket = stealFromBusiestPeer();
+        }
+        if (ticket != null) {
+            int orderId = ticket.getOrder().getOrderId();
+            ticket.getOrder().startPreparing();
+            Log.info(() -> "[Kitchen " + id + "] Preparing order #" + orderId);
+        }
+        return ticket;
+    }
+
+    // Called by the cook when a ticket from prepareNextTicket is done; the order is
+    // READY once every station holding part of it has finished
+    public void complete(KitchenTicket ticket) {
+        if (ticket.finish() && ticket.getOrder().finishPreparing()) {
+            int orderId = ticket.getOrder().getOrderId();
+            Log.info(() -> "[Kitchen " + id + "] Order #" + orderId + " is ready");
         }
-        return order;
+    }
+
+    // Peers this station may steal from when it is idle; set by KitchenRouter
+    public void setPeers(List<Kitchen> peers) {
+        List<Kitchen> others = new ArrayList<>(peers);
+        others.remove(this);
+        this.peers = Collections.unmodifiableList(others);
+    }
+
+    // A peer only gives work away while it has more than this many tickets queued
+    public void setStealThreshold(int stealThreshold) {
+        this.stealThreshold = Math.max(0, stealThreshold);
     }
 
     public boolean hasOrders() {
-        return !orderQueue.isEmpty();
+        return queueSize.get() > 0;
     }
 
     public int getQueueSize() {
-        return orderQueue.size();
+        return queueSize.get();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    private KitchenTicket pollFirst() {
+        KitchenTicket ticket = orderQueue.pollFirst();
+        if (ticket != null) {
+            OrderMetrics.getInstance().recordQueueDepth(id, queueSize.decrementAndGet());
+        }
+        return ticket;
+    }
+
+    // Steals from the tail so the owner keeps working through its oldest tickets
+    private KitchenTicket pollLast() {
+        KitchenTicket ticket = orderQueue.pollLast();
+        if (ticket != null) {
+            OrderMetrics.getInstance().recordQueueDepth(id, queueSize.decrementAndGet());
+        }
+        return ticket;
     }
-}
 
+    private KitchenTicket stealFromBusiestPeer() {
+        Kitchen victim = null;
+        for (Kitchen peer : peers) {
+            if (peer.getQueueSize() > peer.stealThreshold
+                && (victim == null || peer.getQueueSize() > victim.getQueueSize())) {
+                victim = peer;
+            }
+        }
+        if (victim == null) {
+            return null;
+        }
+        KitchenTicket stolen = victim.pollLast();
+        if (stolen != null) {
+            String from = victim.station;
+            Log.debug(() -> "[Kitchen " + id + "] Stole order #" + stolen.getOrder().getOrderId()
+                + " from " + from);
+        }
+        return stolen;
+    }
+}
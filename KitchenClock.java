@@ -0,0 +1,9 @@
+/**
+ * Time source for kitchen scheduling. Live kitchens use SYSTEM; replays and rush
+ * simulations use a SimulatedClock so hours of service run in milliseconds.
+ */
+public interface KitchenClock {
+    KitchenClock SYSTEM = System::currentTimeMillis;
+
+    long currentTimeMillis();
+}
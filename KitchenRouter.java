@@ -0,0 +1,64 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits each order into per-station tickets by item type (pizza lines to the pizza
+ * station, burgers to the grill, anything else to the fallback kitchen), so a station
+ * only sees the lines it actually cooks.
+ */
+public class KitchenRouter implements Observer {
+    private final Map<Class<? extends MenuItem>, Kitchen> routes = new LinkedHashMap<>();
+    private final Kitchen fallback;
+    private final List<Kitchen> kitchens = new ArrayList<>();
+
+    public KitchenRouter(Kitchen fallback) {
+        if (fallback == null) {
+            throw new IllegalArgumentException("Fallback kitchen cannot be null");
+        }
+        this.fallback = fallback;
+        addKitchen(fallback);
+    }
+
+    public void route(Class<? extends MenuItem> itemType, Kitchen kitchen) {
+        if (itemType == null || kitchen == null) {
+            throw new IllegalArgumentException("Item type and kitchen cannot be null");
+        }
+        routes.put(itemType, kitchen);
+        addKitchen(kitchen);
+    }
+
+    @Override
+    public void update(OrderTemplate order) {
+        Map<Kitchen, List<OrderItem>> split = new LinkedHashMap<>();
+        for (OrderItem line : order.getItems()) {
+            split.computeIfAbsent(kitchenFor(line.getMenuItem()), k -> new ArrayList<>()).add(line);
+        }
+        AtomicInteger openTickets = new AtomicInteger(split.size());
+        for (Map.Entry<Kitchen, List<OrderItem>> entry : split.entrySet()) {
+            entry.getKey().enqueue(new KitchenTicket(order, entry.getValue(), openTickets));
+        }
+    }
+
+    public Kitchen kitchenFor(MenuItem item) {
+        MenuItem base = FrozenMenuItem.of(item).getBaseItem();
+        for (Map.Entry<Class<? extends MenuItem>, Kitchen> route : routes.entrySet()) {
+            if (route.getKey().isInstance(base)) {
+                return route.getValue();
+            }
+        }
+        return fallback;
+    }
+
+    public List<Kitchen> getKitchens() {
+        return Collections.unmodifiableList(kitchens);
+    }
+
+    private void addKitchen(Kitchen kitchen) {
+        if (!kitchens.contains(kitchen)) {
+            kitchens.add(kitchen);
+            for (Kitchen k : kitchens) {
+                k.setPeers(kitchens);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Repeatable check behind the choice of SchedulingPolicy.DEFAULT. Replays a fixed set
+ * of seeded rushes through KitchenRushSimulation under every policy, prints each
+ * policy's mean and p99 wait per rush and averaged over all rushes, and fails with
+ * IllegalStateException (non-zero exit) when:
+ *  - an order never becomes ready,
+ *  - replaying the same rush gives a different result, or
+ *  - averaged over the rushes, the default policy has a higher mean wait or a higher
+ *    p99 wait than another policy.
+ * Single rushes may go either way; the averages are what the default is chosen on.
+ * Run by "gradle check"; also usable on its own: java KitchenRushCheck
+ */
+public class KitchenRushCheck {
+    private static final int RUSHES = 30;
+    private static final int ORDERS = 40;
+    private static final long WINDOW_MILLIS = 60 * 60_000L;
+
+    public static void main(String[] args) {
+        Log.setLevel(LogLevel.OFF);
+        SchedulingPolicy[] policies = SchedulingPolicy.values();
+        double[] meanTotals = new double[policies.length];
+        double[] p99Totals = new double[policies.length];
+        for (long seed = 1; seed <= RUSHES; seed++) {
+            KitchenRushSimulation simulation = KitchenRushSimulation.synthesize(ORDERS, WINDOW_MILLIS, seed);
+            StringBuilder line = new StringBuilder("seed " + seed + ":");
+            for (SchedulingPolicy policy : policies) {
+                LatencyHistogram waits = checkPolicy(simulation, policy, seed);
+                meanTotals[policy.ordinal()] += waits.getMean();
+                p99Totals[policy.ordinal()] += waits.getValueAtPercentile(99);
+                line.append(' ').append(policy).append(" mean=").append(minutes(waits.getMean()))
+                    .append(" p99=").append(minutes(waits.getValueAtPercentile(99)));
+            }
+            System.out.println(line);
+        }
+
+        int chosen = SchedulingPolicy.DEFAULT.ordinal();
+        for (SchedulingPolicy policy : policies) {
+            double mean = meanTotals[policy.ordinal()] / RUSHES;
+            double p99 = p99Totals[policy.ordinal()] / RUSHES;
+            System.out.println("average " + policy + ": mean wait " + minutes(mean) + ", p99 wait " + minutes(p99));
+            if (meanTotals[chosen] > meanTotals[policy.ordinal()] || p99Totals[chosen] > p99Totals[policy.ordinal()]) {
+                throw new IllegalStateException("Default " + SchedulingPolicy.DEFAULT + " averages mean "
+                    + minutes(meanTotals[chosen] / RUSHES) + " / p99 " + minutes(p99Totals[chosen] / RUSHES)
+                    + ", worse than " + policy + " mean " + minutes(mean) + " / p99 " + minutes(p99));
+            }
+        }
+        System.out.println("KitchenRushCheck passed (" + RUSHES + " rushes)");
+    }
+
+    // Runs the rush twice under one policy and returns its order waits
+    private static LatencyHistogram checkPolicy(KitchenRushSimulation simulation, SchedulingPolicy policy, long seed) {
+        LatencyHistogram[] first = simulation.run(policy);
+        LatencyHistogram[] second = simulation.run(policy);
+        if (first[0].getCount() != ORDERS) {
+            throw new IllegalStateException("Seed " + seed + " " + policy + ": only " + first[0].getCount()
+                + " of " + ORDERS + " orders became ready");
+        }
+        for (int i = 0; i < first.length; i++) {
+            if (!first[i].summary(1, "ms").equals(second[i].summary(1, "ms"))) {
+                throw new IllegalStateException("Seed " + seed + " " + policy + ": replay is not deterministic");
+            }
+        }
+        return first[0];
+    }
+
+    private static String minutes(double millis) {
+        return String.format("%.2fmin", millis / 60_000.0);
+    }
+}
@@ -0,0 +1,205 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays one dinner rush on a SimulatedClock through KitchenSchedulers under each
+ * SchedulingPolicy and compares how long customers wait for their food.
+ *
+ * Orders are synthesized from the menu (OrderScript.random) with arrival times drawn
+ * from a triangular distribution over the window, so arrivals peak in the middle.
+ * Each order's lines are split per station like KitchenRouter does, every part
+ * carrying the order's latest station promise; an order is ready when its last
+ * station finishes. The same orders and arrivals are replayed
+ * for every policy.
+ */
+public class KitchenRushSimulation {
+    private final List<OrderTemplate> orders;
+    private final long[] arrivalOffsets;
+    private final Map<Class<? extends MenuItem>, Integer> stationCooks = new LinkedHashMap<>();
+    private final int fallbackCooks;
+    private final PrepTimeEstimator estimator;
+    private long promiseSlackMillis = 5 * 60_000L;
+    private double agingWeight = 0.5;
+    private long maxQueueWaitMillis = 5 * 60_000L;
+
+    public KitchenRushSimulation(List<OrderTemplate> orders, long[] arrivalOffsets, int fallbackCooks,
+                                 PrepTimeEstimator estimator) {
+        if (orders.size() != arrivalOffsets.length) {
+            throw new IllegalArgumentException("Every order needs exactly one arrival time");
+        }
+        this.orders = orders;
+        this.arrivalOffsets = arrivalOffsets;
+        this.fallbackCooks = fallbackCooks;
+        this.estimator = estimator;
+    }
+
+    public void addStation(Class<? extends MenuItem> itemType, int cooks) {
+        stationCooks.put(itemType, cooks);
+    }
+
+    public void setPromiseSlackMillis(long promiseSlackMillis) {
+        this.promiseSlackMillis = promiseSlackMillis;
+    }
+
+    public void setAgingWeight(double agingWeight) {
+        this.agingWeight = agingWeight;
+    }
+
+    public void setMaxQueueWaitMillis(long maxQueueWaitMillis) {
+        this.maxQueueWaitMillis = maxQueueWaitMillis;
+    }
+
+    /**
+     * Runs the rush under one policy. Returns [wait, lateness] histograms in ms, where
+     * wait is arrival to last ticket ready and lateness is how far past the promise
+     * the order was ready (0 if on time).
+     */
+    public LatencyHistogram[] run(SchedulingPolicy policy) {
+        SimulatedClock clock = new SimulatedClock(0);
+        Map<Class<? extends MenuItem>, KitchenScheduler> routes = new LinkedHashMap<>();
+        List<KitchenScheduler> stations = new ArrayList<>();
+        for (Map.Entry<Class<? extends MenuItem>, Integer> entry : stationCooks.entrySet()) {
+            KitchenScheduler station = newStation(entry.getKey().getSimpleName(), entry.getValue(), clock, policy);
+            routes.put(entry.getKey(), station);
+            stations.add(station);
+        }
+        KitchenScheduler fallback = newStation("Main", fallbackCooks, clock, policy);
+        stations.add(fallback);
+
+        Map<Integer, Long> arrivals = new HashMap<>();
+        Map<Integer, Long> ready = new HashMap<>();
+        Map<Integer, Long> promised = new HashMap<>();
+        int next = 0;
+        while (next < orders.size() || anyQueued(stations)) {
+            long now = clock.currentTimeMillis();
+            long event = next < orders.size() ? arrivalOffsets[next] : Long.MAX_VALUE;
+            for (KitchenScheduler station : stations) {
+                if (station.hasOrders()) {
+                    event = Math.min(event, Math.max(now, station.getNextCookFreeMillis()));
+                }
+            }
+            clock.advanceTo(event);
+            while (next < orders.size() && arrivalOffsets[next] <= event) {
+                OrderTemplate order = orders.get(next++);
+                arrivals.put(order.getOrderId(), event);
+                Map<KitchenScheduler, List<OrderItem>> split = new LinkedHashMap<>();
+                for (OrderItem line : order.getItems()) {
+                    split.computeIfAbsent(stationFor(routes, fallback, line), k -> new ArrayList<>()).add(line);
+                }
+                AtomicInteger openTickets = new AtomicInteger(split.size());
+                Map<KitchenScheduler, KitchenTicket> tickets = new LinkedHashMap<>();
+                long promise = 0;
+                for (Map.Entry<KitchenScheduler, List<OrderItem>> entry : split.entrySet()) {
+                    KitchenTicket ticket = new KitchenTicket(order, entry.getValue(), openTickets);
+                    tickets.put(entry.getKey(), ticket);
+                    promise = Math.max(promise, entry.getKey().promiseFor(ticket));
+                }
+                for (Map.Entry<KitchenScheduler, KitchenTicket> entry : tickets.entrySet()) {
+                    entry.getKey().enqueue(entry.getValue(), promise);
+                }
+                promised.put(order.getOrderId(), promise);
+            }
+            for (KitchenScheduler station : stations) {
+                for (ScheduledTicket ticket : station.dispatch()) {
+                    ready.merge(ticket.getOrderId(), ticket.getReadyMillis(), Math::max);
+                }
+            }
+        }
+
+        LatencyHistogram waits = new LatencyHistogram();
+        LatencyHistogram lateness = new LatencyHistogram();
+        for (Map.Entry<Integer, Long> entry : ready.entrySet()) {
+            int orderId = entry.getKey();
+            waits.record(entry.getValue() - arrivals.get(orderId));
+            lateness.record(Math.max(0, entry.getValue() - promised.get(orderId)));
+        }
+        return new LatencyHistogram[] { waits, lateness };
+    }
+
+    private KitchenScheduler newStation(String name, int cooks, KitchenClock clock, SchedulingPolicy policy) {
+        KitchenScheduler station = new KitchenScheduler(name, name + " Station", cooks, estimator, clock, policy);
+        station.setPromiseSlackMillis(promiseSlackMillis);
+        station.setAgingWeight(agingWeight);
+        station.setMaxQueueWaitMillis(maxQueueWaitMillis);
+        return station;
+    }
+
+    private static KitchenScheduler stationFor(Map<Class<? extends MenuItem>, KitchenScheduler> routes,
+                                               KitchenScheduler fallback, OrderItem line) {
+        MenuItem base = line.getMenuItem().getBaseItem();
+        for (Map.Entry<Class<? extends MenuItem>, KitchenScheduler> route : routes.entrySet()) {
+            if (route.getKey().isInstance(base)) {
+                return route.getValue();
+            }
+        }
+        return fallback;
+    }
+
+    private static boolean anyQueued(List<KitchenScheduler> stations) {
+        for (KitchenScheduler station : stations) {
+            if (station.hasOrders()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A synthetic rush from the non-veg menu: count orders arriving over windowMillis
+     * (triangular, peaking mid-window), 8 pizza cooks, 5 grill cooks and 1 for the rest.
+     * The same seed always gives the same orders and arrivals.
+     */
+    static KitchenRushSimulation synthesize(int count, long windowMillis, long seed) {
+        Random random = new Random(seed);
+        Menu menu = new NonVegMenuFactory().createMenu();
+        LoadDriver builder = new LoadDriver(menu, 1);
+        List<OrderTemplate> orders = new ArrayList<>();
+        long[] arrivals = new long[count];
+        for (int i = 0; i < count; i++) {
+            arrivals[i] = (long) (windowMillis * (random.nextDouble() + random.nextDouble()) / 2);
+        }
+        Arrays.sort(arrivals);
+        for (int i = 0; i < count; i++) {
+            OrderTemplate order = builder.buildOrder(OrderScript.random(menu, random));
+            OrderRegistry.getInstance().remove(order.getOrderId());
+            orders.add(order);
+        }
+
+        KitchenRushSimulation simulation =
+            new KitchenRushSimulation(orders, arrivals, 1, PrepTimeEstimator.standard());
+        simulation.addStation(PizzaItem.class, 8);
+        simulation.addStation(BurgerItem.class, 5);
+        return simulation;
+    }
+
+    /**
+     * Usage: java KitchenRushSimulation [--orders N] [--window minutes] [--pizza-cooks C]
+     *                                   [--grill-cooks C] [--slack minutes] [--aging W]
+     *                                   [--max-wait minutes] [--seed S]
+     */
+    public static void main(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        int count = Integer.parseInt(options.getOrDefault("orders", "40"));
+        long windowMillis = Long.parseLong(options.getOrDefault("window", "60")) * 60_000L;
+
+        Log.setLevel(LogLevel.OFF);
+        KitchenRushSimulation simulation =
+            synthesize(count, windowMillis, Long.parseLong(options.getOrDefault("seed", "42")));
+        simulation.addStation(PizzaItem.class, Integer.parseInt(options.getOrDefault("pizza-cooks", "8")));
+        simulation.addStation(BurgerItem.class, Integer.parseInt(options.getOrDefault("grill-cooks", "5")));
+        simulation.setPromiseSlackMillis(Long.parseLong(options.getOrDefault("slack", "5")) * 60_000L);
+        simulation.setAgingWeight(Double.parseDouble(options.getOrDefault("aging", "0.5")));
+        simulation.setMaxQueueWaitMillis(Long.parseLong(options.getOrDefault("max-wait", "5")) * 60_000L);
+
+        System.out.println("Rush: " + count + " orders over " + windowMillis / 60_000 + " min");
+        for (SchedulingPolicy policy : SchedulingPolicy.values()) {
+            LatencyHistogram[] result = simulation.run(policy);
+            System.out.println(policy);
+            System.out.println("  wait:     " + result[0].summary(60_000.0, "min"));
+            System.out.println("  lateness: " + result[1].summary(60_000.0, "min"));
+        }
+    }
+}
@@ -0,0 +1,243 @@
+import java.util.*;
+
+/**
+ * Prep-time-aware alternative to Kitchen's FIFO queue for one station staffed by
+ * several cooks. Each ticket gets a prep estimate from PrepTimeEstimator and a
+ * promised-ready time (arrival + prep + slack, or one promise shared by every part of
+ * an order split over stations); dispatch() hands queued tickets to idle cooks,
+ * longest-idle cook first, in SchedulingPolicy order (SchedulingPolicy.DEFAULT unless given).
+ *
+ * EARLIEST_DEADLINE uses aging: a queued ticket gains agingWeight ms of priority for
+ * every ms it waits. All queued tickets age at the same rate, so ordering by
+ * "deadline - agingWeight * waited" equals ordering by the fixed key
+ * "deadline + agingWeight * arrival", which the heap stores at enqueue time.
+ * Weight 0 is pure EDF; larger weights drift towards FIFO. On top of that, a ticket
+ * that has been queued for maxQueueWaitMillis goes next regardless of its deadline,
+ * which bounds how long short tickets can hold back a big one. predictReadyTimes()
+ * plays the queue forward in deadline order only, so it ignores that bound.
+ *
+ * Time comes from a KitchenClock, so a SimulatedClock replays a rush deterministically.
+ */
+public class KitchenScheduler implements Observer {
+    private static final Comparator<ScheduledTicket> PRIORITY =
+        Comparator.comparingLong(ScheduledTicket::getPriorityKey)
+            .thenComparingLong(ScheduledTicket::getSequence);
+
+    private final String id;
+    private final String station;
+    private final PrepTimeEstimator estimator;
+    private final KitchenClock clock;
+    private final SchedulingPolicy policy;
+    private final long epochMillis;
+    private final long[] cookFreeAt;
+    private final PriorityQueue<ScheduledTicket> queue = new PriorityQueue<>(PRIORITY);
+    // Queued tickets in arrival order; entries already started are skipped lazily
+    private final ArrayDeque<ScheduledTicket> arrivals = new ArrayDeque<>();
+    private final List<ScheduledTicket> cooking = new ArrayList<>();
+    private long nextSequence;
+    private long promiseSlackMillis = 5 * 60_000L;
+    private double agingWeight = 0.5;
+    private long maxQueueWaitMillis = 5 * 60_000L;
+
+    public KitchenScheduler(String id, String station, int cooks, PrepTimeEstimator estimator,
+                            KitchenClock clock) {
+        this(id, station, cooks, estimator, clock, SchedulingPolicy.DEFAULT);
+    }
+
+    public KitchenScheduler(String id, String station, int cooks, PrepTimeEstimator estimator,
+                            KitchenClock clock, SchedulingPolicy policy) {
+        if (cooks <= 0) {
+            throw new IllegalArgumentException("A station needs at least one cook");
+        }
+        if (estimator == null || clock == null || policy == null) {
+            throw new IllegalArgumentException("Estimator, clock and policy cannot be null");
+        }
+        this.id = id;
+        this.station = station;
+        this.estimator = estimator;
+        this.clock = clock;
+        this.policy = policy;
+        this.epochMillis = clock.currentTimeMillis();
+        this.cookFreeAt = new long[cooks];
+        Arrays.fill(cookFreeAt, epochMillis);
+    }
+
+    // Margin added to the prep estimate when promising a ready time; applies to later tickets
+    public synchronized void setPromiseSlackMillis(long promiseSlackMillis) {
+        this.promiseSlackMillis = Math.max(0, promiseSlackMillis);
+    }
+
+    // When this station alone would promise the ticket: now + prep estimate + slack
+    public synchronized long promiseFor(KitchenTicket ticket) {
+        return clock.currentTimeMillis() + estimator.estimateMillis(ticket) + promiseSlackMillis;
+    }
+
+    // Queue wait after which an EARLIEST_DEADLINE ticket jumps ahead of every later arrival
+    public synchronized void setMaxQueueWaitMillis(long maxQueueWaitMillis) {
+        this.maxQueueWaitMillis = Math.max(0, maxQueueWaitMillis);
+    }
+
+    // Priority ms gained per ms waited under EARLIEST_DEADLINE; applies to later tickets
+    public synchronized void setAgingWeight(double agingWeight) {
+        this.agingWeight = Math.max(0, agingWeight);
+    }
+
+    @Override
+    public void update(OrderTemplate order) {
+        enqueue(new KitchenTicket(order, order.getItems()));
+    }
+
+    public synchronized ScheduledTicket enqueue(KitchenTicket ticket) {
+        return enqueue(ticket, promiseFor(ticket));
+    }
+
+    /**
+     * Queues a ticket under a promised-ready time chosen by the caller. A router that
+     * splits an order over several stations passes every part the same promise, the
+     * latest of the stations' promiseFor, so each station ranks the order by when the
+     * whole order is due rather than by when its own part could be done.
+     */
+    public synchronized ScheduledTicket enqueue(KitchenTicket ticket, long promisedReadyMillis) {
+        long now = clock.currentTimeMillis();
+        long prep = estimator.estimateMillis(ticket);
+        long promised = promisedReadyMillis;
+        long sequence = nextSequence++;
+        long key = policy == SchedulingPolicy.FIFO
+            ? sequence
+            : promised + (long) (agingWeight * (now - epochMillis));
+        ScheduledTicket scheduled = new ScheduledTicket(ticket, sequence, now, prep, promised, key);
+        queue.add(scheduled);
+        arrivals.addLast(scheduled);
+        OrderMetrics.getInstance().recordQueueDepth(id, queue.size());
+        Log.info(() -> "[Kitchen " + id + "] Scheduled order #" + scheduled.getOrderId()
+            + " at " + station + " (prep ~" + prep / 1000 + "s)");
+        return scheduled;
+    }
+
+    /**
+     * Starts as many queued tickets as there are idle cooks at the current clock time
+     * and returns them with their cook, start and ready times filled in.
+     */
+    public synchronized List<ScheduledTicket> dispatch() {
+        long now = clock.currentTimeMillis();
+        retireFinished(now);
+        List<ScheduledTicket> started = new ArrayList<>();
+        int cook;
+        while (!queue.isEmpty() && (cook = longestIdleCook(now)) >= 0) {
+            ScheduledTicket next = nextToStart(now);
+            next.start(cook, now);
+            cookFreeAt[cook] = next.getReadyMillis();
+            cooking.add(next);
+            started.add(next);
+            next.getTicket().getOrder().startPreparing();
+            int c = cook;
+            Log.info(() -> "[Kitchen " + id + "] Cook " + c + " preparing order #" + next.getOrderId());
+        }
+        if (!started.isEmpty()) {
+            OrderMetrics.getInstance().recordQueueDepth(id, queue.size());
+        }
+        return started;
+    }
+
+    /**
+     * Predicted ready time per order ID for every ticket being cooked or still queued,
+     * found by playing the queue forward over the cooks in dispatch order. Assumes the
+     * estimates hold and no new tickets jump ahead.
+     */
+    public synchronized Map<Integer, Long> predictReadyTimes() {
+        long now = clock.currentTimeMillis();
+        retireFinished(now);
+        Map<Integer, Long> ready = new LinkedHashMap<>();
+        for (ScheduledTicket ticket : cooking) {
+            ready.merge(ticket.getOrderId(), ticket.getReadyMillis(), Math::max);
+        }
+        PriorityQueue<Long> free = new PriorityQueue<>();
+        for (long at : cookFreeAt) {
+            free.add(Math.max(at, now));
+        }
+        ScheduledTicket[] waiting = queue.toArray(new ScheduledTicket[0]);
+        Arrays.sort(waiting, PRIORITY);
+        for (ScheduledTicket ticket : waiting) {
+            long done = free.poll() + ticket.getPrepMillis();
+            free.add(done);
+            ready.merge(ticket.getOrderId(), done, Math::max);
+        }
+        return ready;
+    }
+
+    // -1 if this station holds nothing for the order
+    public long getPredictedReadyMillis(int orderId) {
+        return predictReadyTimes().getOrDefault(orderId, -1L);
+    }
+
+    // Earliest time any cook is (or becomes) free; drives a simulation's next event
+    public synchronized long getNextCookFreeMillis() {
+        long min = Long.MAX_VALUE;
+        for (long at : cookFreeAt) {
+            min = Math.min(min, at);
+        }
+        return min;
+    }
+
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    public synchronized boolean hasOrders() {
+        return !queue.isEmpty();
+    }
+
+    public int getCooks() {
+        return cookFreeAt.length;
+    }
+
+    public SchedulingPolicy getPolicy() {
+        return policy;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getStation() {
+        return station;
+    }
+
+    // Deadline order, except that a ticket queued for maxQueueWaitMillis or longer goes
+    // first (oldest first), so no ticket waits much past the bound for shorter ones
+    private ScheduledTicket nextToStart(long now) {
+        while (!arrivals.isEmpty() && arrivals.peekFirst().isStarted()) {
+            arrivals.pollFirst();
+        }
+        ScheduledTicket oldest = arrivals.peekFirst();
+        if (policy == SchedulingPolicy.EARLIEST_DEADLINE && oldest != null
+            && now - oldest.getArrivalMillis() >= maxQueueWaitMillis) {
+            queue.remove(oldest);
+            return oldest;
+        }
+        return queue.poll();
+    }
+
+    private int longestIdleCook(long now) {
+        int best = -1;
+        for (int i = 0; i < cookFreeAt.length; i++) {
+            if (cookFreeAt[i] <= now && (best < 0 || cookFreeAt[i] < cookFreeAt[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    private void retireFinished(long now) {
+        cooking.removeIf(scheduled -> {
+            if (scheduled.getReadyMillis() > now) {
+                return false;
+            }
+            KitchenTicket ticket = scheduled.getTicket();
+            if (ticket.finish()) {
+                ticket.getOrder().finishPreparing();
+            }
+            return true;
+        });
+    }
+}
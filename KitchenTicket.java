@@ -0,0 +1,42 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One station's share of an order: the order plus only the lines that station cooks.
+ * Tickets split from the same order share one counter, so the order is ready only
+ * when its last ticket is finished.
+ */
+public class KitchenTicket {
+    private final OrderTemplate order;
+    private final List<OrderItem> lines;
+    private final AtomicInteger openTickets;
+    private final AtomicBoolean finished = new AtomicBoolean();
+
+    public KitchenTicket(OrderTemplate order, List<OrderItem> lines) {
+        this(order, lines, new AtomicInteger(1));
+    }
+
+    // openTickets starts at the number of tickets the order was split into
+    public KitchenTicket(OrderTemplate order, List<OrderItem> lines, AtomicInteger openTickets) {
+        if (order == null || openTickets == null) {
+            throw new IllegalArgumentException("Order and ticket counter cannot be null");
+        }
+        this.order = order;
+        this.lines = Collections.unmodifiableList(new ArrayList<>(lines));
+        this.openTickets = openTickets;
+    }
+
+    // Marks this ticket done; true only for the last of the order's tickets
+    public boolean finish() {
+        return finished.compareAndSet(false, true) && openTickets.decrementAndGet() == 0;
+    }
+
+    public OrderTemplate getOrder() {
+        return order;
+    }
+
+    public List<OrderItem> getLines() {
+        return lines;
+    }
+}
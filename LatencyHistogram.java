@@ -0,0 +1,97 @@
+import java.util.concurrent.atomic.*;
+
+/**
+ * Lock-free latency histogram with HdrHistogram-style log-linear buckets.
+ * Values below 64 get their own bucket; above that each power of two is split into
+ * 32 sub-buckets, so any recorded value is reported within ~3% of its true value
+ * while the whole long range fits in under 2000 counters. Recording is one atomic
+ * increment plus adders; safe to call from any number of threads.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;  // 64
+    private static final int HALF = SUB_BUCKETS / 2;               // 32
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * HALF + HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts.incrementAndGet(indexOf(value));
+        total.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return total.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long count = total.sum();
+        return count == 0 ? 0.0 : sum.sum() / (double) count;
+    }
+
+    // Value at the given percentile (0..100), reported as the top of its bucket
+    public long getValueAtPercentile(double percentile) {
+        long count = total.sum();
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    // "count=... mean=... p50=... p90=... p99=... p99.9=... max=..." with values divided by scale
+    public String summary(double scale, String unit) {
+        return String.format("count=%d mean=%.1f%s p50=%.1f%s p90=%.1f%s p99=%.1f%s p99.9=%.1f%s max=%.1f%s",
+            getCount(), getMean() / scale, unit,
+            getValueAtPercentile(50) / scale, unit, getValueAtPercentile(90) / scale, unit,
+            getValueAtPercentile(99) / scale, unit, getValueAtPercentile(99.9) / scale, unit,
+            getMax() / scale, unit);
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);
+        int shift = magnitude - (SUB_BUCKET_BITS - 1);
+        int sub = (int) (value >>> shift);  // in [32, 63]
+        return shift * HALF + sub;
+    }
+
+    static long highestValueIn(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long sub = index % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
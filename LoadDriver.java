@@ -0,0 +1,285 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Headless driver that pushes scripted orders through OrderFactory and
+ * OrderTemplate.processOrder concurrently, without UIController.
+ *
+ * Closed loop: `concurrency` workers each start the next order as soon as the previous
+ * one finishes; latency is measured per order.
+ * Open loop: orders are started on a fixed schedule at the target rate whatever the
+ * system does; latency is measured from each order's intended start time, so queueing
+ * behind a slow system shows up in the percentiles instead of being hidden.
+ */
+public class LoadDriver {
+    // Read once per order, so a hot-reloaded menu applies to the next order, not a running one
+    private final Supplier<Menu> menus;
+    private final int concurrency;
+    private final PaymentHandler paymentHandler = new PaymentHandler();
+    private final OrderNotifier notifier = new OrderNotifier();
+    private final OrderCalculator calculator = new OrderCalculator(14.0);
+    private final MenuVariantCache variants = MenuVariantCache.getInstance();
+    private final KitchenRouter kitchens;
+
+    public LoadDriver(Menu menu, int concurrency) {
+        this(fixed(menu), concurrency);
+    }
+
+    public LoadDriver(Supplier<Menu> menus, int concurrency) {
+        if (menus == null) {
+            throw new IllegalArgumentException("Menu source cannot be null");
+        }
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive");
+        }
+        this.menus = menus;
+        this.concurrency = concurrency;
+        this.kitchens = MainController.registerStaff(notifier);
+        calculator.addDiscountStrategy(new PizzaDiscount());
+        calculator.addDiscountStrategy(new MeatDiscount());
+    }
+
+    private static Supplier<Menu> fixed(Menu menu) {
+        if (menu == null) {
+            throw new IllegalArgumentException("Menu cannot be null");
+        }
+        return () -> menu;
+    }
+
+    // Already carries MainController's kitchens and waiters; register extra observers before running
+    public OrderNotifier getNotifier() {
+        return notifier;
+    }
+
+    public BatchReport runClosedLoop(List<OrderScript> scripts, int totalOrders) {
+        checkScripts(scripts);
+        LatencyHistogram latency = new LatencyHistogram();
+        int[] outcomes = new int[3];
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = newWorkers();
+
+        long start = System.nanoTime();
+        List<Future<?>> running = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            running.add(workers.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < totalOrders) {
+                    long orderStart = System.nanoTime();
+                    OrderStatus status = execute(scripts.get(i % scripts.size()));
+                    latency.record(System.nanoTime() - orderStart);
+                    countOutcome(outcomes, status);
+                }
+            }));
+        }
+        awaitAll(running);
+        long elapsed = System.nanoTime() - start;
+        workers.shutdown();
+        return new BatchReport("closed loop x" + concurrency, outcomes[0], outcomes[1], outcomes[2], elapsed, latency);
+    }
+
+    public BatchReport runOpenLoop(List<OrderScript> scripts, double ordersPerSecond, int totalOrders) {
+        checkScripts(scripts);
+        if (ordersPerSecond <= 0) {
+            throw new IllegalArgumentException("Target rate must be positive");
+        }
+        LatencyHistogram latency = new LatencyHistogram();
+        int[] outcomes = new int[3];
+        ExecutorService workers = newWorkers();
+        long intervalNanos = (long) (1_000_000_000L / ordersPerSecond);
+
+        long start = System.nanoTime();
+        List<Future<?>> running = new ArrayList<>(totalOrders);
+        for (int i = 0; i < totalOrders; i++) {
+            long intendedStart = start + i * intervalNanos;
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            OrderScript script = scripts.get(i % scripts.size());
+            running.add(workers.submit(() -> {
+                OrderStatus status = execute(script);
+                latency.record(System.nanoTime() - intendedStart);
+                countOutcome(outcomes, status);
+            }));
+        }
+        awaitAll(running);
+        long elapsed = System.nanoTime() - start;
+        workers.shutdown();
+        return new BatchReport(String.format("open loop %.0f/s", ordersPerSecond),
+            outcomes[0], outcomes[1], outcomes[2], elapsed, latency);
+    }
+
+    // Builds the order from its script and runs the full template; null when the script is bad
+    OrderStatus execute(OrderScript script) {
+        OrderTemplate order;
+        try {
+            order = buildOrder(script);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        try {
+            order.processOrder();
+            cookQueuedTickets();
+            return order.getStatus();
+        } catch (RuntimeException e) {
+            return null;
+        } finally {
+            OrderRegistry.getInstance().remove(order.getOrderId());
+        }
+    }
+
+    // Stands in for the cooks, so the stations' queues stay bounded over a long run
+    private void cookQueuedTickets() {
+        for (Kitchen kitchen : kitchens.getKitchens()) {
+            KitchenTicket ticket;
+            while ((ticket = kitchen.prepareNextTicket()) != null) {
+                kitchen.complete(ticket);
+            }
+        }
+    }
+
+    OrderTemplate buildOrder(OrderScript script) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("table", "1");
+        parameters.put("pickup", "11:20");
+        OrderTemplate order = OrderFactory.createOrder(script.getOrderType(), paymentHandler, notifier, calculator, parameters);
+        order.setCustomerName(script.getCustomerName());
+        Menu menu = menus.get();
+        for (OrderScript.Line line : script.getLines()) {
+            MenuItem item = menu.findItem(line.getItemName());
+            if (item == null) {
+                OrderRegistry.getInstance().remove(order.getOrderId());
+                throw new IllegalArgumentException("Item not on menu: " + line.getItemName());
+            }
+            List<MenuModifier> extras = new ArrayList<>(2);
+            if (line.hasExtraCheese()) extras.add(MenuModifier.EXTRA_CHEESE);
+            if (line.hasSauce()) extras.add(MenuModifier.SAUCE);
+            order.addItem(new OrderItem(variants.variant(item, extras), line.getQuantity()));
+        }
+        order.setPaymentStrategy(script.createPayment());
+        return order;
+    }
+
+    private ExecutorService newWorkers() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "load-driver-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static void checkScripts(List<OrderScript> scripts) {
+        if (scripts == null || scripts.isEmpty()) {
+            throw new IllegalArgumentException("At least one order script is required");
+        }
+    }
+
+    private static void countOutcome(int[] outcomes, OrderStatus status) {
+        int slot = status != null && status.isPaid() ? 0 : status == OrderStatus.CANCELLED ? 1 : 2;
+        synchronized (outcomes) {
+            outcomes[slot]++;
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> running) {
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for load run", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Load worker failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Usage: java LoadDriver [--mode open|closed] [--orders N] [--rate R] [--concurrency C]
+     *                        [--menu veg|nonveg|kids] [--script file] [--seed S] [--metrics true]
+     *                        [--log off|error|warn|info|debug] [--menu-file file [--reload-ms M]]
+     * --menu-file loads the menu with FileMenuFactory instead of --menu; with --reload-ms the
+     * file is polled and edits take effect from the next order on. Without --script, orders are synthesized from the menu. Order output is silenced
+     * during the run; only the report and log lines at or above --log (default off) are printed.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        String mode = options.getOrDefault("mode", "closed");
+        int orders = Integer.parseInt(options.getOrDefault("orders", "10000"));
+        double rate = Double.parseDouble(options.getOrDefault("rate", "1000"));
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "8"));
+
+        MenuFactory factory;
+        switch (options.containsKey("menu-file") ? "file" : options.getOrDefault("menu", "nonveg")) {
+            case "file":
+                factory = new FileMenuFactory(Paths.get(options.get("menu-file")));
+                break;
+            case "veg":
+                factory = new VegMenuFactory();
+                break;
+            case "kids":
+                factory = new KidsMenuFactory();
+                break;
+            default:
+                factory = new NonVegMenuFactory();
+        }
+        Menu menu = factory.createMenu();
+
+        List<OrderScript> scripts;
+        if (options.containsKey("script")) {
+            scripts = OrderScript.load(Paths.get(options.get("script")));
+        } else {
+            Random random = new Random(Long.parseLong(options.getOrDefault("seed", "42")));
+            scripts = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                scripts.add(OrderScript.random(menu, random));
+            }
+        }
+
+        boolean metrics = Boolean.parseBoolean(options.getOrDefault("metrics", "false"));
+        if (metrics) {
+            OrderMetrics.getInstance().setEnabled(true);
+            OrderMetrics.getInstance().registerMBean();
+        }
+
+        LogLevel previousLevel = Log.getLevel();
+        Log.setLevel(LogLevel.valueOf(options.getOrDefault("log", "off").toUpperCase()));
+
+        LoadDriver driver;
+        if (factory instanceof FileMenuFactory) {
+            FileMenuFactory files = (FileMenuFactory) factory;
+            if (options.containsKey("reload-ms")) {
+                files.startAutoReload(Long.parseLong(options.get("reload-ms")));
+            }
+            driver = new LoadDriver(files::createMenu, concurrency);
+        } else {
+            driver = new LoadDriver(menu, concurrency);
+        }
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        BatchReport report;
+        try {
+            report = mode.equals("open")
+                ? driver.runOpenLoop(scripts, rate, orders)
+                : driver.runClosedLoop(scripts, orders);
+        } finally {
+            Log.flush();
+            Log.setLevel(previousLevel);
+            System.setOut(console);
+        }
+        console.print(report);
+        if (metrics) {
+            console.print(OrderMetrics.getInstance().getSnapshot());
+        }
+    }
+}
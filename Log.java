@@ -0,0 +1,95 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.function.Supplier;
+
+/**
+ * Internal logging facade for diagnostic output.
+ * Messages below the current level are discarded before they are built: pass a
+ * Supplier (Log.info(() -> "..." + x)) and the string is only concatenated when the
+ * level is enabled. Enabled lines go to an AsyncLogWriter, so the calling thread only
+ * pays for an enqueue; call flushIfWritingTo(stream) before writing to a stream the
+ * log may share, so queued lines come out first.
+ */
+public final class Log {
+    private static volatile LogLevel level = LogLevel.INFO;
+    private static final AsyncLogWriter writer = new AsyncLogWriter(8192, System.out);
+
+    static {
+        // Don't lose the last lines when the program exits
+        Runtime.getRuntime().addShutdownHook(new Thread(Log::flush, "log-flush"));
+    }
+
+    private Log() {
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel != null ? newLevel : LogLevel.INFO;
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static boolean isEnabled(LogLevel messageLevel) {
+        return messageLevel.compareTo(level) >= 0 && level != LogLevel.OFF;
+    }
+
+    public static void setOutput(PrintStream out) {
+        writer.setOutput(out);
+    }
+
+    public static void flush() {
+        writer.flush();
+    }
+
+    // Drains queued lines only when they are headed for target; other sinks skip the wait
+    public static void flushIfWritingTo(OutputStream target) {
+        if (target != null && writer.getOutput() == target) {
+            writer.flush();
+        }
+    }
+
+    public static void debug(String message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    public static void debug(Supplier<String> message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    public static void info(String message) {
+        log(LogLevel.INFO, message);
+    }
+
+    public static void info(Supplier<String> message) {
+        log(LogLevel.INFO, message);
+    }
+
+    public static void warn(String message) {
+        log(LogLevel.WARN, message);
+    }
+
+    public static void warn(Supplier<String> message) {
+        log(LogLevel.WARN, message);
+    }
+
+    public static void error(String message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    public static void error(Supplier<String> message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    private static void log(LogLevel messageLevel, String message) {
+        if (isEnabled(messageLevel)) {
+            writer.append(message);
+        }
+    }
+
+    private static void log(LogLevel messageLevel, Supplier<String> message) {
+        if (isEnabled(messageLevel)) {
+            writer.append(message.get());
+        }
+    }
+}
@@ -1,3 +1,5 @@
+import java.util.*;
+
 public class MainController {
     private final Menu menu;
     private final PaymentHandler paymentHandler = new PaymentHandler();
@@ -5,6 +7,8 @@ public class MainController {
     private final OrderCalculator calculator = new OrderCalculator(14.0); // 14% tax
     private final UIController ui;
 
+    static final int FLOOR_WAITERS = 3;
+
     public MainController(Menu menu, UIController ui) {
         if (menu == null) throw new IllegalArgumentException("Menu cannot be null");
         this.menu = menu;
@@ -13,27 +17,38 @@ public class MainController {
     }
 
     private void setupNotificationSystem() {
+        registerStaff(notificationController);
+        ui.showNotificationSystemSetup(FLOOR_WAITERS, DineInOrder.TABLE_COUNT);
+    }
+
+    // The restaurant's kitchens and waiters, registered on the given notifier;
+    // LoadDriver uses the same set so load runs pay for the same fan-out
+    static KitchenRouter registerStaff(OrderNotifier notificationController) {
         // Create kitchens
         Kitchen mainKitchen = new Kitchen("K1", "Main Kitchen");
         Kitchen pizzaStation = new Kitchen("K2", "Pizza Station");
         Kitchen grillStation = new Kitchen("K3", "Grill Station");
 
-        notificationController.registerObserver(mainKitchen);
-        notificationController.registerObserver(pizzaStation);
-        notificationController.registerObserver(grillStation);
-
-        // Create waiters
-        Waiter waiter1 = new Waiter("W1", 1);
-        Waiter waiter2 = new Waiter("W2", 6);
-        Waiter waiter3 = new Waiter("W3", 11);
-        Waiter deliveryWaiter = new Waiter("W4", null);
-
-        notificationController.registerObserver(waiter1);
-        notificationController.registerObserver(waiter2);
-        notificationController.registerObserver(waiter3);
-        notificationController.registerObserver(deliveryWaiter);
-
-        ui.showNotificationSystemSetup();
+        // Each station only receives the lines it cooks
+        KitchenRouter kitchenRouter = new KitchenRouter(mainKitchen);
+        kitchenRouter.route(PizzaItem.class, pizzaStation);
+        kitchenRouter.route(BurgerItem.class, grillStation);
+        notificationController.registerObserver(kitchenRouter);
+
+        // Floor waiters split the dining room into consecutive blocks of tables, from their
+        // assigned table up to the next waiter's; the last one also takes any table past
+        // TABLE_COUNT, so every dine-in order reaches a waiter. Delivery only sees takeaway.
+        int tablesEach = (DineInOrder.TABLE_COUNT + FLOOR_WAITERS - 1) / FLOOR_WAITERS;
+        OrderSubscription dineIn = OrderSubscription.forTypes(OrderType.DINE_IN);
+        for (int i = 0; i < FLOOR_WAITERS; i++) {
+            Waiter waiter = new Waiter("W" + (i + 1), 1 + i * tablesEach);
+            int first = waiter.getAssignedTable();
+            int last = i == FLOOR_WAITERS - 1 ? Integer.MAX_VALUE : first + tablesEach - 1;
+            notificationController.registerObserver(waiter, dineIn.withTables(first, last));
+        }
+        Waiter deliveryWaiter = new Waiter("W" + (FLOOR_WAITERS + 1), null);
+        notificationController.registerObserver(deliveryWaiter, OrderSubscription.forTypes(OrderType.TAKEAWAY));
+        return kitchenRouter;
     }
 
     public void runInteractive() {
@@ -57,14 +72,19 @@ public class MainController {
     }
 
     private OrderTemplate createOrder(String type) {
+        OrderTemplate order;
         switch (type.toLowerCase()) {
             case "dinein":
-                return new DineInOrder(paymentHandler, notificationController, calculator);
+                order = new DineInOrder(paymentHandler, notificationController, calculator);
+                break;
             case "takeaway":
-                return new TakeawayOrder(paymentHandler, notificationController, calculator);
+                order = new TakeawayOrder(paymentHandler, notificationController, calculator);
+                break;
             default:
                 throw new IllegalArgumentException("Invalid order type");
         }
+        OrderRegistry.getInstance().register(order);
+        return order;
     }
 
     private void collectOrderItems(OrderTemplate order) {
@@ -85,12 +105,7 @@ public class MainController {
     }
 
     private MenuItem findMenuItemByName(String namePart) {
-        for (MenuItem item : menu.getItems()) {
-            if (item.getDescription().toLowerCase().contains(namePart.toLowerCase())) {
-                return item;
-            }
-        }
-        return null;
+        return menu.findItem(namePart);
     }
 
     private void configureDiscounts() {
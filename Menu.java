@@ -1,15 +1,97 @@
 import java.util.*;
 
 public class Menu {
-    private final List<MenuItem> items = new ArrayList<>();
+    private final List<MenuItem> items;
+    // 0 for menus built item by item; FileMenuFactory numbers each loaded version
+    private final long version;
+    private final boolean immutable;
+    // Built once after the factory finishes adding items; dropped again if the menu changes
+    private volatile MenuIndex index;
+    private volatile MenuCatalog catalog;
+
+    public Menu() {
+        this.items = new ArrayList<>();
+        this.version = 0;
+        this.immutable = false;
+    }
+
+    // Immutable snapshot: the index is built here, and addItem is rejected
+    public Menu(long version, List<MenuItem> items) {
+        this.items = new ArrayList<>(items);
+        this.version = version;
+        this.immutable = true;
+        this.index = new MenuIndex(this.items);
+        this.catalog = MenuCatalog.of(this.items);
+    }
 
     // Add item to menu
-    public void addItem(MenuItem item) {
+    public synchronized void addItem(MenuItem item) {
+        if (immutable) {
+            throw new UnsupportedOperationException("Menu version " + version + " is immutable");
+        }
         items.add(item);
+        index = null;
+        catalog = null;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean isImmutable() {
+        return immutable;
     }
 
     // Retrieve all items
     public List<MenuItem> getItems() {
         return Collections.unmodifiableList(items);
     }
-}
\ No newline at end of file
+
+    // Best-ranked item whose description contains the given text (case-insensitive)
+    public MenuItem findItem(String namePart) {
+        return getIndex().findBest(namePart);
+    }
+
+    // Ranked matches: exact, prefix, word prefix, then substring
+    public List<MenuItem> searchItems(String query, int limit) {
+        return getIndex().search(query, limit);
+    }
+
+    // Item id of the best match (its position in getItems()), or -1
+    public int findItemId(String namePart) {
+        return getIndex().findBestId(namePart);
+    }
+
+    public MenuItem getItem(int itemId) {
+        return items.get(itemId);
+    }
+
+    // Primitive column view of the items; ids are positions in getItems()
+    public MenuCatalog getCatalog() {
+        MenuCatalog current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                current = catalog;
+                if (current == null) {
+                    current = MenuCatalog.of(items);
+                    catalog = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public MenuIndex getIndex() {
+        MenuIndex current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = new MenuIndex(items);
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+}
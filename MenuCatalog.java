@@ -0,0 +1,180 @@
+import java.util.*;
+
+/**
+ * Compact, immutable catalogue of undecorated menu items addressed by int item id.
+ *
+ * Items are stored column-wise: a long[] of prices in cents, an int[] of category
+ * masks, a byte[] of item kinds and an int[] pointing into a table of interned
+ * names. That is about 17 bytes per item plus each distinct name once, instead of an
+ * object, a String and an interface call per item, and a pricing loop over ids reads
+ * adjacent array slots rather than chasing references.
+ *
+ * Descriptions are rebuilt from kind and name ("Margherita" + " (Pizza)"). getItem
+ * materializes an ordinary PizzaItem/BurgerItem when code needs a MenuItem.
+ */
+public final class MenuCatalog {
+    static final byte OTHER = 0;
+    static final byte PIZZA = 1;
+    static final byte BURGER = 2;
+    private static final String[] SUFFIXES = { "", " (Pizza)", " (Burger)" };
+
+    private final long[] priceCents;
+    private final int[] categoryMasks;
+    private final byte[] kinds;
+    private final int[] nameIds;
+    private final String[] names;
+    private final int size;
+
+    private MenuCatalog(Builder builder) {
+        this.size = builder.size;
+        this.priceCents = Arrays.copyOf(builder.priceCents, size);
+        this.categoryMasks = Arrays.copyOf(builder.categoryMasks, size);
+        this.kinds = Arrays.copyOf(builder.kinds, size);
+        this.nameIds = Arrays.copyOf(builder.nameIds, size);
+        this.names = builder.names.toArray(new String[0]);
+    }
+
+    // Item ids are positions in the list, so they line up with Menu and MenuIndex positions
+    public static MenuCatalog of(List<MenuItem> items) {
+        Builder builder = new Builder(items.size());
+        for (MenuItem item : items) {
+            builder.add(item);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getPriceCents(int itemId) {
+        return priceCents[checkId(itemId)];
+    }
+
+    public int getCategoryMask(int itemId) {
+        return categoryMasks[checkId(itemId)];
+    }
+
+    public String getName(int itemId) {
+        return names[nameIds[checkId(itemId)]];
+    }
+
+    public String getDescription(int itemId) {
+        checkId(itemId);
+        String suffix = SUFFIXES[kinds[itemId]];
+        String name = names[nameIds[itemId]];
+        return suffix.isEmpty() ? name : name + suffix;
+    }
+
+    // A fresh MenuItem equal in description, price and categories to the catalogued one
+    public MenuItem getItem(int itemId) {
+        checkId(itemId);
+        String name = names[nameIds[itemId]];
+        double price = Money.toDouble(priceCents[itemId]);
+        switch (kinds[itemId]) {
+            case PIZZA:
+                return new PizzaItem(name, price);
+            case BURGER:
+                return new BurgerItem(name, price);
+            default:
+                return new RecordedMenuItem(name, priceCents[itemId], categoryMasks[itemId]);
+        }
+    }
+
+    // Number of distinct names after interning
+    public int getNameCount() {
+        return names.length;
+    }
+
+    private int checkId(int itemId) {
+        if (itemId < 0 || itemId >= size) {
+            throw new IllegalArgumentException("Unknown item id: " + itemId);
+        }
+        return itemId;
+    }
+
+    /**
+     * Appends items column-wise, interning names as it goes; build() trims the
+     * columns to size. Not thread-safe.
+     */
+    public static final class Builder {
+        private long[] priceCents;
+        private int[] categoryMasks;
+        private byte[] kinds;
+        private int[] nameIds;
+        private final List<String> names = new ArrayList<>();
+        private final Map<String, Integer> nameTable = new HashMap<>();
+        private int size;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int expectedItems) {
+            int capacity = Math.max(16, expectedItems);
+            priceCents = new long[capacity];
+            categoryMasks = new int[capacity];
+            kinds = new byte[capacity];
+            nameIds = new int[capacity];
+        }
+
+        public int addPizza(String name, long priceCents) {
+            return add(PIZZA, name, priceCents, ItemCategory.PIZZA.mask() | ItemCategory.meatMaskFor(name));
+        }
+
+        public int addBurger(String name, long priceCents) {
+            return add(BURGER, name, priceCents, ItemCategory.BURGER.mask() | ItemCategory.meatMaskFor(name));
+        }
+
+        // Plain PizzaItem/BurgerItem keep their kind; anything else is stored by description
+        public int add(MenuItem item) {
+            if (item == null) {
+                throw new IllegalArgumentException("Menu item cannot be null");
+            }
+            String description = item.getDescription();
+            long cents = Money.fromDouble(item.getPrice());
+            if (item instanceof PizzaItem && description.endsWith(SUFFIXES[PIZZA])) {
+                return add(PIZZA, strip(description, PIZZA), cents, item.getCategoryMask());
+            }
+            if (item instanceof BurgerItem && description.endsWith(SUFFIXES[BURGER])) {
+                return add(BURGER, strip(description, BURGER), cents, item.getCategoryMask());
+            }
+            return add(OTHER, description, cents, item.getCategoryMask());
+        }
+
+        public MenuCatalog build() {
+            return new MenuCatalog(this);
+        }
+
+        private int add(byte kind, String name, long cents, int categoryMask) {
+            if (name == null || name.isEmpty()) {
+                throw new IllegalArgumentException("Item name cannot be empty");
+            }
+            if (cents < 0) {
+                throw new IllegalArgumentException("Price cannot be negative");
+            }
+            if (size == priceCents.length) {
+                int capacity = size * 2;
+                priceCents = Arrays.copyOf(priceCents, capacity);
+                categoryMasks = Arrays.copyOf(categoryMasks, capacity);
+                kinds = Arrays.copyOf(kinds, capacity);
+                nameIds = Arrays.copyOf(nameIds, capacity);
+            }
+            Integer nameId = nameTable.get(name);
+            if (nameId == null) {
+                nameId = names.size();
+                names.add(name);
+                nameTable.put(name, nameId);
+            }
+            priceCents[size] = cents;
+            categoryMasks[size] = categoryMask;
+            kinds[size] = kind;
+            nameIds[size] = nameId;
+            return size++;
+        }
+
+        private static String strip(String description, byte kind) {
+            return description.substring(0, description.length() - SUFFIXES[kind].length());
+        }
+    }
+}
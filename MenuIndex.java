@@ -0,0 +1,178 @@
+import java.util.*;
+
+/**
+ * Immutable lookup index over a menu's item descriptions.
+ * Descriptions are normalized once (lower case, punctuation collapsed to single spaces)
+ * and every 1-, 2- and 3-character gram gets a posting list of item positions.
+ * A query only verifies the items in its rarest gram's posting list, so lookup cost
+ * follows the number of candidates, not the size of the catalogue.
+ */
+public class MenuIndex {
+    private static final int GRAM = 3;
+
+    // Lower score ranks first
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int SUBSTRING = 3;
+
+    private static final int[] NO_MATCHES = new int[0];
+
+    private final List<MenuItem> items;
+    private final String[] normalized;
+    private final Map<String, int[]> exact;
+    private final Map<String, int[]> postings;
+
+    public MenuIndex(List<MenuItem> items) {
+        this.items = new ArrayList<>(items);
+        this.normalized = new String[this.items.size()];
+
+        Map<String, List<Integer>> exactLists = new HashMap<>();
+        Map<String, List<Integer>> gramLists = new HashMap<>();
+        for (int i = 0; i < normalized.length; i++) {
+            String text = normalize(this.items.get(i).getDescription());
+            normalized[i] = text;
+            exactLists.computeIfAbsent(text, k -> new ArrayList<>()).add(i);
+            for (int n = 1; n <= GRAM; n++) {
+                for (int start = 0; start + n <= text.length(); start++) {
+                    List<Integer> list = gramLists.computeIfAbsent(text.substring(start, start + n), k -> new ArrayList<>());
+                    // Items are added in order, so a duplicate gram is always the last entry
+                    if (list.isEmpty() || list.get(list.size() - 1) != i) {
+                        list.add(i);
+                    }
+                }
+            }
+        }
+        this.exact = toArrays(exactLists);
+        this.postings = toArrays(gramLists);
+    }
+
+    // Best match for what the user typed, or null when nothing contains it
+    public MenuItem findBest(String query) {
+        int id = findBestId(query);
+        return id >= 0 ? items.get(id) : null;
+    }
+
+    // Menu position (= MenuCatalog item id) of the best match, or -1
+    public int findBestId(String query) {
+        int[] ids = searchIds(query, 1);
+        return ids.length > 0 ? ids[0] : -1;
+    }
+
+    // Ranked matches: exact, then whole-description prefix, then word prefix, then substring;
+    // ties go to the shorter description, then to menu order
+    public List<MenuItem> search(String query, int limit) {
+        int[] ids = searchIds(query, limit);
+        MenuItem[] ranked = new MenuItem[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ranked[i] = items.get(ids[i]);
+        }
+        return Arrays.asList(ranked);
+    }
+
+    // Same ranking as search, as menu positions
+    public int[] searchIds(String query, int limit) {
+        if (query == null || limit <= 0) {
+            return NO_MATCHES;
+        }
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return NO_MATCHES;
+        }
+
+        int[] exactHits = exact.get(q);
+        if (exactHits != null && exactHits.length >= limit) {
+            return Arrays.copyOf(exactHits, limit);
+        }
+
+        int[] candidates = candidatesFor(q);
+        boolean needsCheck = q.length() > GRAM;
+        String wordPrefix = " " + q;
+
+        // Max-heap on rank so the worst kept match is evicted first
+        PriorityQueue<Long> best = new PriorityQueue<>(limit + 1, Collections.reverseOrder());
+        for (int id : candidates) {
+            String text = normalized[id];
+            if (needsCheck && !text.contains(q)) {
+                continue;
+            }
+            int score;
+            if (text.length() == q.length()) {
+                score = EXACT;
+            } else if (text.startsWith(q)) {
+                score = PREFIX;
+            } else if (text.contains(wordPrefix)) {
+                score = WORD_PREFIX;
+            } else {
+                score = SUBSTRING;
+            }
+            long rank = ((long) score << 56) | ((long) Math.min(text.length(), 0xFFFF) << 32) | id;
+            best.offer(rank);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        int[] ranked = new int[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = (int) (long) best.poll();
+        }
+        return ranked;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && sb.length() > 0) {
+                    sb.append(' ');
+                }
+                pendingSpace = false;
+                sb.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    // Items containing q: the rarest of q's grams narrows the candidates
+    private int[] candidatesFor(String q) {
+        if (q.length() <= GRAM) {
+            return postings.getOrDefault(q, NO_MATCHES);
+        }
+        int[] rarest = null;
+        for (int start = 0; start + GRAM <= q.length(); start++) {
+            int[] list = postings.get(q.substring(start, start + GRAM));
+            if (list == null) {
+                return NO_MATCHES;
+            }
+            if (rarest == null || list.length < rarest.length) {
+                rarest = list;
+            }
+        }
+        return rarest;
+    }
+
+    private static Map<String, int[]> toArrays(Map<String, List<Integer>> lists) {
+        Map<String, int[]> arrays = new HashMap<>(lists.size() * 2);
+        for (Map.Entry<String, List<Integer>> entry : lists.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] ids = new int[list.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = list.get(i);
+            }
+            arrays.put(entry.getKey(), ids);
+        }
+        return arrays;
+    }
+}
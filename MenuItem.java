@@ -3,4 +3,9 @@
 public interface MenuItem {
     String getDescription();  // Returns item name + any added decorations
     double getPrice();        // Returns base price + decorator prices
+
+    // ItemCategory bits for this item; decorators keep the categories of what they wrap
+    default int getCategoryMask() {
+        return 0;
+    }
 }
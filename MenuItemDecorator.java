@@ -7,6 +7,20 @@ public abstract class MenuItemDecorator implements MenuItem {
         this.wrapped = wrapped;
     }
 
+    // Innermost undecorated item (e.g. the PizzaItem under all the extras)
+    public MenuItem getBaseItem() {
+        MenuItem item = wrapped;
+        while (item instanceof MenuItemDecorator) {
+            item = ((MenuItemDecorator) item).wrapped;
+        }
+        return item;
+    }
+
+    // Name of the extra this decorator adds, used by FrozenMenuItem
+    public String getModifierName() {
+        return getClass().getSimpleName();
+    }
+
     @Override
     public String getDescription() {
         return wrapped.getDescription();
@@ -16,4 +30,9 @@ public abstract class MenuItemDecorator implements MenuItem {
     public double getPrice() {
         return wrapped.getPrice();
     }
+
+    @Override
+    public int getCategoryMask() {
+        return wrapped.getCategoryMask();
+    }
 }
@@ -0,0 +1,36 @@
+import java.util.function.UnaryOperator;
+
+/**
+ * The extras a customer can add to an item, each backed by its decorator
+ */
+public enum MenuModifier {
+    EXTRA_CHEESE("Extra Cheese", ExtraCheeseDecorator::new),
+    SAUCE("sauce", SauceDecorator::new);
+
+    private final String modifierName;
+    private final UnaryOperator<MenuItem> decorator;
+
+    MenuModifier(String modifierName, UnaryOperator<MenuItem> decorator) {
+        this.modifierName = modifierName;
+        this.decorator = decorator;
+    }
+
+    // Matches MenuItemDecorator.getModifierName, as recorded by FrozenMenuItem
+    public String getModifierName() {
+        return modifierName;
+    }
+
+    // null if no modifier has that name
+    public static MenuModifier forName(String modifierName) {
+        for (MenuModifier modifier : values()) {
+            if (modifier.modifierName.equals(modifierName)) {
+                return modifier;
+            }
+        }
+        return null;
+    }
+
+    public MenuItem applyTo(MenuItem item) {
+        return decorator.apply(item);
+    }
+}
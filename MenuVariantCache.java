@@ -0,0 +1,118 @@
+import java.util.*;
+
+/**
+ * Flyweight factory for decorated menu items. A variant is a base item plus an
+ * ordered list of modifiers; the first request builds the decorator chain once and
+ * freezes it, and every later request for the same base instance and modifiers gets
+ * that same FrozenMenuItem back. Equal variants are therefore identical, so caches
+ * downstream can key on the reference.
+ *
+ * Base items are matched by identity: a reloaded menu brings new instances and
+ * new variants, and the old ones age out. The cache holds at most `capacity`
+ * variants and evicts the least recently used.
+ */
+public class MenuVariantCache {
+    private static final MenuVariantCache instance = new MenuVariantCache(1024);
+
+    private final int capacity;
+    private final LinkedHashMap<Key, FrozenMenuItem> variants;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public MenuVariantCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        this.variants = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, FrozenMenuItem> eldest) {
+                if (size() > MenuVariantCache.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static MenuVariantCache getInstance() {
+        return instance;
+    }
+
+    // Modifiers are applied in list order, innermost first
+    public synchronized FrozenMenuItem variant(MenuItem base, List<MenuModifier> modifiers) {
+        if (base == null) {
+            throw new IllegalArgumentException("Menu item cannot be null");
+        }
+        Key key = new Key(base, modifiers);
+        FrozenMenuItem variant = variants.get(key);
+        if (variant != null) {
+            hits++;
+            return variant;
+        }
+        misses++;
+        MenuItem item = base;
+        for (MenuModifier modifier : key.modifiers) {
+            item = modifier.applyTo(item);
+        }
+        variant = FrozenMenuItem.of(item);
+        variants.put(key, variant);
+        return variant;
+    }
+
+    public FrozenMenuItem variant(MenuItem base, MenuModifier... modifiers) {
+        return variant(base, Arrays.asList(modifiers));
+    }
+
+    public synchronized int size() {
+        return variants.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized void clear() {
+        variants.clear();
+    }
+
+    private static final class Key {
+        final MenuItem base;
+        final List<MenuModifier> modifiers;
+        final int hash;
+
+        Key(MenuItem base, List<MenuModifier> modifiers) {
+            this.base = base;
+            this.modifiers = List.copyOf(modifiers);
+            this.hash = 31 * System.identityHashCode(base) + this.modifiers.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return base == other.base && modifiers.equals(other.modifiers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
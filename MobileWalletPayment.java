@@ -1,5 +1,10 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 public class MobileWalletPayment implements PaymentStrategy {
     private final String walletId;
+    // Answers already given per idempotency key, as the wallet gateway keeps them
+    private final Map<String, Boolean> answers = new ConcurrentHashMap<>();
 
     public MobileWalletPayment(String walletId) {
         if (walletId == null || walletId.trim().isEmpty()) {
@@ -9,15 +14,30 @@ public class MobileWalletPayment implements PaymentStrategy {
     }
 
     @Override
-    public boolean pay(double amount) {
-        if (amount <= 0) {
-            System.out.println("[MobileWalletPayment] Invalid amount: " + amount);
+    public boolean pay(long amountCents) {
+        if (amountCents <= 0) {
+            Log.warn(() -> "[MobileWalletPayment] Invalid amount: " + Money.format(amountCents));
             return false;
         }
-        System.out.println("[MobileWalletPayment] Calling wallet gateway for " + format(amount) 
+        Log.info(() -> "[MobileWalletPayment] Calling wallet gateway for " + Money.format(amountCents) 
             + " wallet=" + walletId);
-        // Simulate 90% success rate
-        return Math.random() > 0.1;
+        // Simulate a gateway that fails 10% of calls; the wallet itself always has funds
+        if (Math.random() < 0.1) {
+            throw new PaymentGatewayException("Wallet gateway unavailable");
+        }
+        return true;
+    }
+
+    @Override
+    public boolean supportsIdempotencyKey() {
+        return true;
+    }
+
+    // A repeated key returns the first answer without charging again; a gateway error
+    // leaves no answer behind, so the key may be retried
+    @Override
+    public boolean pay(long amountCents, String idempotencyKey) {
+        return answers.computeIfAbsent(idempotencyKey, k -> pay(amountCents));
     }
 
     @Override
@@ -25,12 +45,24 @@ public class MobileWalletPayment implements PaymentStrategy {
         return "Mobile Wallet";
     }
 
-    public String getWalletId() {
-        return walletId;
+    @Override
+    public boolean supportsBatchSettlement() {
+        return true;
     }
 
-    private String format(double val) {
-        return String.format("%.2f", val);
+    @Override
+    public PaymentAuthorization createAuthorization(long amountCents) {
+        return new PaymentAuthorization(getPaymentMethodName(), walletId, null, amountCents);
+    }
+
+    @Override
+    public boolean reverse(long amountCents) {
+        Log.info(() -> "[MobileWalletPayment] Refunding " + Money.format(amountCents) + " to wallet=" + walletId);
+        return true;
+    }
+
+    public String getWalletId() {
+        return walletId;
     }
 }
 
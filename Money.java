@@ -0,0 +1,99 @@
+import java.math.RoundingMode;
+
+/**
+ * Money as a long count of minor units (cents), with exact arithmetic helpers.
+ * Amounts stay primitive longs end to end, so pricing never allocates; rounding
+ * only happens where a percentage is applied, with an explicit RoundingMode.
+ */
+public final class Money {
+    public static final int MINOR_UNITS = 100;
+    private static final long PARTS_PER_MILLION = 1_000_000;  // 100% expressed in millionths
+    private static final long PPM_PER_PERCENT = PARTS_PER_MILLION / 100;
+
+    private Money() {
+    }
+
+    // Menu prices are entered as decimals; convert once to cents
+    public static long fromDouble(double amount) {
+        return Math.round(amount * MINOR_UNITS);
+    }
+
+    public static double toDouble(long cents) {
+        return cents / (double) MINOR_UNITS;
+    }
+
+    // 14.0 -> 140000 ppm, 8.875 -> 88750 ppm; rates finer than 1/10000 of a percent are rejected
+    // rather than rounded, so the rate applied is always the rate that was configured
+    public static long percentToPartsPerMillion(double percent) {
+        double scaled = percent * PPM_PER_PERCENT;
+        long ppm = Math.round(scaled);
+        if (Math.abs(scaled - ppm) > 1e-6) {
+            throw new IllegalArgumentException("Rate " + percent + "% needs more than four decimal places");
+        }
+        return ppm;
+    }
+
+    // cents * ppm / 1000000, rounded with the given mode
+    public static long percentOf(long cents, long ppm, RoundingMode rounding) {
+        return divide(Math.multiplyExact(cents, ppm), PARTS_PER_MILLION, rounding);
+    }
+
+    public static long divide(long dividend, long divisor, RoundingMode rounding) {
+        if (divisor <= 0) {
+            throw new IllegalArgumentException("Divisor must be positive");
+        }
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+
+        int sign = dividend < 0 ? -1 : 1;
+        long twiceRemainder = Math.abs(remainder) * 2;
+        boolean awayFromZero;
+        switch (rounding) {
+            case UP:
+                awayFromZero = true;
+                break;
+            case DOWN:
+                awayFromZero = false;
+                break;
+            case CEILING:
+                awayFromZero = sign > 0;
+                break;
+            case FLOOR:
+                awayFromZero = sign < 0;
+                break;
+            case HALF_UP:
+                awayFromZero = twiceRemainder >= divisor;
+                break;
+            case HALF_DOWN:
+                awayFromZero = twiceRemainder > divisor;
+                break;
+            case HALF_EVEN:
+                awayFromZero = twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) != 0);
+                break;
+            default:
+                throw new ArithmeticException("Rounding necessary for " + dividend + "/" + divisor);
+        }
+        return awayFromZero ? quotient + sign : quotient;
+    }
+
+    // "1234.50" without String.format
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(12), cents).toString();
+    }
+
+    public static StringBuilder appendTo(StringBuilder sb, long cents) {
+        if (cents < 0) {
+            sb.append('-');
+            cents = -cents;
+        }
+        long fraction = cents % MINOR_UNITS;
+        sb.append(cents / MINOR_UNITS).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+}
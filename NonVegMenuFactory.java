@@ -6,6 +6,7 @@ public class NonVegMenuFactory extends MenuFactory {
         Menu menu = new Menu();
         menu.addItem(new PizzaItem("Italian Chicken", 80.0));
         menu.addItem(new BurgerItem("Classic Beef", 70.0));
+        menu.getIndex(); // build the lookup index once, up front
         return menu;
     }
 }
\ No newline at end of file
@@ -0,0 +1,202 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Bounded mailbox in front of one Observer, drained by its own worker thread.
+ * Implements Observer itself, so OrderNotifier can treat it like any other subscriber:
+ * update() only enqueues, the real observer is called later from the worker thread.
+ * The timeout bounds both halves of a delivery:
+ *  - a notification that waited in the mailbox longer than the timeout is discarded
+ *    instead of delivered late (counted as expired), and
+ *  - the observer's own update() runs on a separate caller thread; if it has not
+ *    returned within the timeout it is interrupted and abandoned on a fresh caller
+ *    (counted as timed out), so a hung observer cannot stall the mailbox or, under
+ *    BLOCK, the producers behind it.
+ */
+public class ObserverMailbox implements Observer {
+    private final Observer target;
+    private final BlockingQueue<Envelope> queue;
+    private final OverflowPolicy policy;
+    private final long timeoutNanos;
+    private final Set<Integer> pendingOrderIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final Thread worker;
+    private ExecutorService caller; // only touched by the worker, and by shutdown()
+    private volatile boolean running = true;
+
+    public ObserverMailbox(Observer target, int capacity, OverflowPolicy policy, long timeoutMillis) {
+        if (target == null) {
+            throw new IllegalArgumentException("Observer cannot be null");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Mailbox capacity must be positive");
+        }
+        if (timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.target = target;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.policy = policy != null ? policy : OverflowPolicy.DROP;
+        this.timeoutNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.caller = newCaller();
+        this.worker = new Thread(this::drain, "mailbox-" + target.getClass().getSimpleName());
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void update(OrderTemplate order) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (policy == OverflowPolicy.COALESCE && !pendingOrderIds.add(order.getOrderId())) {
+            // Observers read the live order, so one pending notification per order is enough
+            coalesced.incrementAndGet();
+            return;
+        }
+
+        Envelope envelope = new Envelope(order, System.nanoTime());
+        if (queue.offer(envelope)) {
+            return;
+        }
+
+        switch (policy) {
+            case BLOCK:
+                try {
+                    if (queue.offer(envelope, timeoutNanos, TimeUnit.NANOSECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                dropped.incrementAndGet();
+                break;
+            case COALESCE:
+                while (!queue.offer(envelope)) {
+                    Envelope oldest = queue.poll();
+                    if (oldest != null) {
+                        pendingOrderIds.remove(oldest.order.getOrderId());
+                        dropped.incrementAndGet();
+                    }
+                }
+                break;
+            default:
+                dropped.incrementAndGet();
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+        caller.shutdownNow();
+    }
+
+    public Observer getTarget() {
+        return target;
+    }
+
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getDeliveredCount() {
+        return delivered.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getExpiredCount() {
+        return expired.get();
+    }
+
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+
+    private void drain() {
+        while (running) {
+            Envelope envelope;
+            try {
+                envelope = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (policy == OverflowPolicy.COALESCE) {
+                pendingOrderIds.remove(envelope.order.getOrderId());
+            }
+            if (System.nanoTime() - envelope.enqueuedAt > timeoutNanos) {
+                expired.incrementAndGet();
+                continue;
+            }
+            if (!deliver(envelope.order)) {
+                break;
+            }
+        }
+        caller.shutdownNow();
+    }
+
+    // Calls the observer on the caller thread and waits at most the timeout.
+    // Returns false only when the worker itself was interrupted.
+    private boolean deliver(OrderTemplate order) {
+        Future<?> call;
+        try {
+            call = caller.submit(() -> target.update(order));
+        } catch (RejectedExecutionException e) {
+            return false; // shut down
+        }
+        try {
+            call.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            delivered.incrementAndGet();
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            timedOut.incrementAndGet();
+            // The old caller may never come back; later notifications get a new one
+            caller.shutdownNow();
+            caller = newCaller();
+            Log.warn(() -> "[ObserverMailbox] " + target.getClass().getSimpleName()
+                + " did not return within the timeout on order #" + order.getOrderId());
+        } catch (ExecutionException e) {
+            // A failing observer must not kill its worker
+            Log.error(() -> "[ObserverMailbox] Observer failed on order #"
+                + order.getOrderId() + ": " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            return false;
+        }
+        return true;
+    }
+
+    private ExecutorService newCaller() {
+        return Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "mailbox-call-" + target.getClass().getSimpleName());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static final class Envelope {
+        final OrderTemplate order;
+        final long enqueuedAt;
+
+        Envelope(OrderTemplate order, long enqueuedAt) {
+            this.order = order;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.stream.Stream;
+
+/**
+ * Batch engine for pushing many orders through the OrderTemplate steps concurrently.
+ * Each order still runs its steps strictly in template order (notify, calculate, pay, print),
+ * but different orders overlap on a shared worker pool. Every step has its own queue and
+ * permit count: an order that finishes one step is queued for the next, and is only handed
+ * to a worker once that step has a free permit. Workers never block waiting for a permit,
+ * so a slow step (e.g. payment) holds at most maxConcurrentPerStep workers while the
+ * others keep running the other steps.
+ * Step timings are kept per processAll call, so batches may run concurrently on one processor.
+ * Single orders keep using OrderTemplate.processOrder directly.
+ */
+public class OrderBatchProcessor {
+    private final ExecutorService workers;
+    private final Map<OrderStep, StepLane> lanes = new EnumMap<>(OrderStep.class);
+
+    public OrderBatchProcessor(int workerThreads, int maxConcurrentPerStep) {
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("Worker thread count must be positive");
+        }
+        if (maxConcurrentPerStep <= 0) {
+            throw new IllegalArgumentException("Per-step concurrency must be positive");
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread t = new Thread(r, "order-batch-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        for (OrderStep step : OrderStep.values()) {
+            lanes.put(step, new StepLane(step, maxConcurrentPerStep));
+        }
+    }
+
+    public BatchReport processAll(Stream<? extends OrderTemplate> orders) {
+        if (orders == null) {
+            throw new IllegalArgumentException("Order stream cannot be null");
+        }
+        BatchStats stats = new BatchStats();
+        long start = System.nanoTime();
+
+        List<CompletableFuture<OrderStatus>> results = new ArrayList<>();
+        StepLane first = lanes.get(OrderStep.values()[0]);
+        orders.forEach(order -> {
+            OrderRun run = new OrderRun(order, stats);
+            results.add(run.result);
+            first.offer(run);
+        });
+
+        int completed = 0;
+        int cancelled = 0;
+        int failed = 0;
+        for (Future<OrderStatus> result : results) {
+            try {
+                OrderStatus status = result.get();
+                if (status.isPaid()) {
+                    completed++;
+                } else if (status == OrderStatus.CANCELLED) {
+                    cancelled++;
+                } else {
+                    failed++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for batch", e);
+            } catch (ExecutionException e) {
+                failed++;
+            }
+        }
+
+        return new BatchReport(completed, cancelled, failed, System.nanoTime() - start,
+            snapshot(stats.counts), snapshot(stats.totalNanos), snapshotMax(stats.maxNanos));
+    }
+
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    // Runs one step of one order on a worker, then queues the order for its next step
+    private void runStep(StepLane lane, OrderRun run) {
+        long stepStart = System.nanoTime();
+        boolean proceed;
+        try {
+            proceed = run.order.runStep(lane.step);
+        } catch (Throwable e) {
+            lane.release();
+            run.stats.record(lane.step, System.nanoTime() - stepStart);
+            run.result.completeExceptionally(e);
+            return;
+        }
+        lane.release();
+        run.stats.record(lane.step, System.nanoTime() - stepStart);
+
+        int next = lane.step.ordinal() + 1;
+        if (proceed && next < OrderStep.values().length) {
+            lanes.get(OrderStep.values()[next]).offer(run);
+        } else {
+            run.result.complete(run.order.getStatus());
+        }
+    }
+
+    /**
+     * Orders waiting for one step, and the permits bounding how many run it at once
+     */
+    private final class StepLane {
+        private final OrderStep step;
+        private final Semaphore permits;
+        private final Queue<OrderRun> waiting = new ConcurrentLinkedQueue<>();
+
+        StepLane(OrderStep step, int maxConcurrent) {
+            this.step = step;
+            this.permits = new Semaphore(maxConcurrent);
+        }
+
+        void offer(OrderRun run) {
+            waiting.add(run);
+            dispatch();
+        }
+
+        void release() {
+            permits.release();
+            dispatch();
+        }
+
+        // Hands waiting orders to workers while permits last. Called after every offer and
+        // release, so an order queued while all permits were held is picked up by the
+        // thread that frees the next one.
+        private void dispatch() {
+            while (!waiting.isEmpty()) {
+                if (!permits.tryAcquire()) {
+                    return;
+                }
+                OrderRun run = waiting.poll();
+                if (run == null) {
+                    permits.release();
+                    continue;
+                }
+                try {
+                    workers.execute(() -> runStep(this, run));
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    run.result.completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    private static final class OrderRun {
+        final OrderTemplate order;
+        final BatchStats stats;
+        final CompletableFuture<OrderStatus> result = new CompletableFuture<>();
+
+        OrderRun(OrderTemplate order, BatchStats stats) {
+            this.order = order;
+            this.stats = stats;
+        }
+    }
+
+    /**
+     * Step timings of one processAll call
+     */
+    private static final class BatchStats {
+        final Map<OrderStep, LongAdder> counts = new EnumMap<>(OrderStep.class);
+        final Map<OrderStep, LongAdder> totalNanos = new EnumMap<>(OrderStep.class);
+        final Map<OrderStep, LongAccumulator> maxNanos = new EnumMap<>(OrderStep.class);
+
+        BatchStats() {
+            for (OrderStep step : OrderStep.values()) {
+                counts.put(step, new LongAdder());
+                totalNanos.put(step, new LongAdder());
+                maxNanos.put(step, new LongAccumulator(Math::max, 0L));
+            }
+        }
+
+        void record(OrderStep step, long nanos) {
+            counts.get(step).increment();
+            totalNanos.get(step).add(nanos);
+            maxNanos.get(step).accumulate(nanos);
+        }
+    }
+
+    private Map<OrderStep, Long> snapshot(Map<OrderStep, LongAdder> adders) {
+        Map<OrderStep, Long> copy = new EnumMap<>(OrderStep.class);
+        adders.forEach((step, adder) -> copy.put(step, adder.sum()));
+        return copy;
+    }
+
+    private Map<OrderStep, Long> snapshotMax(Map<OrderStep, LongAccumulator> maxima) {
+        Map<OrderStep, Long> copy = new EnumMap<>(OrderStep.class);
+        maxima.forEach((step, max) -> copy.put(step, max.get()));
+        return copy;
+    }
+}
@@ -1,66 +1,109 @@
+import java.math.RoundingMode;
 import java.util.*;
 
 public class OrderCalculator {
     private final double taxPercent;
-    private final List<DiscountStrategy> discountStrategies;
+    private final long taxRatePpm;
+    private final RoundingMode taxRounding;
+    private final DiscountEngine discountEngine;
 
     public OrderCalculator(double taxPercent) {
+        this(taxPercent, RoundingMode.HALF_UP);
+    }
+
+    public OrderCalculator(double taxPercent, RoundingMode taxRounding) {
         if (taxPercent < 0 || taxPercent > 100) {
             throw new IllegalArgumentException("Tax percentage must be between 0 and 100");
         }
+        if (taxRounding == null) {
+            throw new IllegalArgumentException("Tax rounding mode cannot be null");
+        }
         this.taxPercent = taxPercent;
-        this.discountStrategies = new ArrayList<>();
+        this.taxRatePpm = Money.percentToPartsPerMillion(taxPercent);
+        this.taxRounding = taxRounding;
+        this.discountEngine = new DiscountEngine();
     }
 
     public void addDiscountStrategy(DiscountStrategy strategy) {
-        if (strategy != null && !discountStrategies.contains(strategy)) {
-            discountStrategies.add(strategy);
-        }
+        discountEngine.addStrategy(strategy);
     }
 
     public void removeDiscountStrategy(DiscountStrategy strategy) {
-        discountStrategies.remove(strategy);
+        discountEngine.removeStrategy(strategy);
     }
 
     public void clearDiscountStrategies() {
-        discountStrategies.clear();
+        discountEngine.clear();
     }
 
-    public double calculateSubtotal(List<OrderItem> items) {
+    // ===== Exact amounts in cents =====
+    public long calculateSubtotalCents(List<OrderItem> items) {
         if (items == null || items.isEmpty()) {
-            return 0.0;
+            return 0;
+        }
+        long subtotal = 0;
+        for (OrderItem item : items) {
+            subtotal += item.getSubtotalCents();
         }
-        return items.stream().mapToDouble(OrderItem::getSubtotal).sum();
+        return subtotal;
     }
 
-    public double calculateDiscount(List<OrderItem> items) {
-        if (items == null || items.isEmpty() || discountStrategies.isEmpty()) {
-            return 0.0;
+    public long calculateDiscountCents(List<OrderItem> items) {
+        return discountEngine.calculateCents(items);
+    }
+
+    public long calculateTaxCents(long amountAfterDiscountCents) {
+        if (amountAfterDiscountCents < 0) {
+            return 0;
         }
-        return discountStrategies.stream().mapToDouble(strategy -> strategy.apply(items)).sum();
+        return Money.percentOf(amountAfterDiscountCents, taxRatePpm, taxRounding);
+    }
+
+    public long calculateTotalCents(List<OrderItem> items) {
+        return price(items).getTotalCents();
+    }
+
+    // Subtotal, discount, tax and total in one go, for callers that need more than the total
+    public PricedOrder price(List<OrderItem> items) {
+        long subtotal = calculateSubtotalCents(items);
+        long discount = calculateDiscountCents(items);
+        long afterDiscount = Math.max(0, subtotal - discount);
+        long tax = calculateTaxCents(afterDiscount);
+        return new PricedOrder(items != null ? items : Collections.emptyList(),
+            subtotal, discount, tax, afterDiscount + tax);
+    }
+
+    // ===== Decimal views of the same amounts =====
+    public double calculateSubtotal(List<OrderItem> items) {
+        return Money.toDouble(calculateSubtotalCents(items));
+    }
+
+    public double calculateDiscount(List<OrderItem> items) {
+        return Money.toDouble(calculateDiscountCents(items));
     }
 
     public double calculateTax(double amountAfterDiscount) {
-        if (amountAfterDiscount < 0) {
-            return 0.0;
-        }
-        return amountAfterDiscount * taxPercent / 100.0;
+        return Money.toDouble(calculateTaxCents(Money.fromDouble(amountAfterDiscount)));
     }
 
     public double calculateTotal(List<OrderItem> items) {
-        double subtotal = calculateSubtotal(items);
-        double discount = calculateDiscount(items);
-        double afterDiscount = Math.max(0.0, subtotal - discount);
-        double tax = calculateTax(afterDiscount);
-        return afterDiscount + tax;
+        return Money.toDouble(calculateTotalCents(items));
     }
 
     public double getTaxPercent() {
         return taxPercent;
     }
 
+    public RoundingMode getTaxRounding() {
+        return taxRounding;
+    }
+
+    // Changes whenever the discount rules change; the tax rate is fixed per calculator
+    public int getConfigVersion() {
+        return discountEngine.getVersion();
+    }
+
     public int getDiscountStrategyCount() {
-        return discountStrategies.size();
+        return discountEngine.size();
     }
 }
-
@@ -0,0 +1,362 @@
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Versioned binary encoding of orders, order item lists and bills for sending
+ * between processes.
+ *
+ * Every message starts with [byte version][byte kind]. Ids, counts and quantities
+ * are unsigned varints; amounts are zigzag varints. Item lists begin with a string
+ * dictionary (count, then length-prefixed UTF-8), and each line refers to its
+ * strings by dictionary index, so a description repeated across lines is sent once.
+ *
+ *   ITEMS: dictionary, line count, lines
+ *   BILL:  order id, subtotal, discount, tax, total, ITEMS body
+ *   ORDER: order id, order type, table (0 = none), customer, status, ITEMS body
+ *
+ * A line is [quantity][form]. Form 1 is a pizza/burger base plus known modifiers
+ * (kind, name index, base price, modifier count, modifier ordinals), decoded back
+ * into the same decorator chain so kitchen routing still sees the item type.
+ * Form 0 is anything else (description index, unit price, category mask), decoded
+ * as a RecordedMenuItem.
+ *
+ * Decoding reads straight from the buffer (heap arrays are not copied) and leaves
+ * its position just past the message, so messages can be read back to back from one
+ * buffer. An instance reuses its scratch space and is not thread-safe.
+ */
+public final class OrderCodec {
+    public static final int VERSION = 1;
+
+    public static final byte ITEMS = 1;
+    public static final byte BILL = 2;
+    public static final byte ORDER = 3;
+
+    private static final byte RECORDED = 0;
+    private static final byte BUILT = 1;
+    private static final byte OTHER_KIND = 0;
+    private static final byte PIZZA_KIND = 1;
+    private static final byte BURGER_KIND = 2;
+    private static final String[] SUFFIXES = { "", " (Pizza)", " (Burger)" };
+
+    private byte[] out = new byte[256];
+    private int length;
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final List<byte[]> dictionaryBytes = new ArrayList<>();
+
+    // ===== Encoding =====
+
+    public ByteBuffer encodeItems(List<OrderItem> items) {
+        start(ITEMS);
+        writeItems(items);
+        return finish();
+    }
+
+    public ByteBuffer encodeBill(Bill bill) {
+        if (bill == null) {
+            throw new IllegalArgumentException("Bill cannot be null");
+        }
+        start(BILL);
+        writeVarInt(bill.getOrderId());
+        writeSignedVarLong(bill.getSubtotalCents());
+        writeSignedVarLong(bill.getDiscountCents());
+        writeSignedVarLong(bill.getTaxCents());
+        writeSignedVarLong(bill.getTotalCents());
+        writeItems(bill.getItems());
+        return finish();
+    }
+
+    public ByteBuffer encodeOrder(OrderTemplate order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        return encodeOrder(OrderSnapshot.of(order));
+    }
+
+    public ByteBuffer encodeOrder(OrderSnapshot order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        start(ORDER);
+        writeVarInt(order.getOrderId());
+        writeByte(order.getOrderType().ordinal());
+        writeVarInt(order.getTableNumber());
+        writeString(order.getCustomerName());
+        writeByte(order.getStatus().ordinal());
+        writeItems(order.getItems());
+        return finish();
+    }
+
+    // ===== Decoding =====
+
+    // Kind of the message at the buffer's position, without consuming it
+    public static byte peekKind(ByteBuffer in) {
+        checkVersion(in.get(in.position()));
+        return in.get(in.position() + 1);
+    }
+
+    public List<OrderItem> decodeItems(ByteBuffer in) {
+        return decode(in, ITEMS, () -> readItems(in));
+    }
+
+    public Bill decodeBill(ByteBuffer in) {
+        return decode(in, BILL, () -> {
+            int orderId = readVarInt(in);
+            long subtotal = readSignedVarLong(in);
+            long discount = readSignedVarLong(in);
+            long tax = readSignedVarLong(in);
+            long total = readSignedVarLong(in);
+            return new Bill(orderId, readItems(in), subtotal, discount, tax, total);
+        });
+    }
+
+    public OrderSnapshot decodeOrder(ByteBuffer in) {
+        return decode(in, ORDER, () -> {
+            int orderId = readVarInt(in);
+            OrderType type = OrderType.values()[in.get()];
+            int table = readVarInt(in);
+            String customer = readString(in);
+            OrderStatus status = OrderStatus.values()[in.get()];
+            return new OrderSnapshot(orderId, type, table, customer, status, readItems(in));
+        });
+    }
+
+    private interface Body<T> {
+        T read();
+    }
+
+    private static <T> T decode(ByteBuffer in, byte kind, Body<T> body) {
+        int start = in.position();
+        try {
+            checkVersion(in.get());
+            byte actual = in.get();
+            if (actual != kind) {
+                throw new IllegalArgumentException("Expected message kind " + kind + " but found " + actual);
+            }
+            return body.read();
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            in.position(start);
+            throw new IllegalArgumentException("Truncated or corrupt message at offset " + start, e);
+        } catch (IllegalArgumentException e) {
+            in.position(start);
+            throw e;
+        }
+    }
+
+    private static void checkVersion(byte version) {
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported codec version: " + version);
+        }
+    }
+
+    // ===== Item lists =====
+
+    private void writeItems(List<OrderItem> items) {
+        // First pass fills the dictionary so it can be written ahead of the lines
+        dictionary.clear();
+        dictionaryBytes.clear();
+        for (OrderItem item : items) {
+            FrozenMenuItem frozen = item.getMenuItem();
+            byte kind = kindOf(frozen);
+            intern(kind == OTHER_KIND ? frozen.getDescription() : baseName(frozen, kind));
+        }
+        writeVarInt(dictionaryBytes.size());
+        for (byte[] text : dictionaryBytes) {
+            writeVarInt(text.length);
+            writeBytes(text);
+        }
+
+        writeVarInt(items.size());
+        for (OrderItem item : items) {
+            FrozenMenuItem frozen = item.getMenuItem();
+            writeVarInt(item.getQuantity());
+            byte kind = kindOf(frozen);
+            if (kind == OTHER_KIND) {
+                writeByte(RECORDED);
+                writeVarInt(dictionary.get(frozen.getDescription()));
+                writeSignedVarLong(frozen.getPriceCents());
+                writeVarInt(frozen.getCategoryMask());
+            } else {
+                writeByte(BUILT);
+                writeByte(kind);
+                writeVarInt(dictionary.get(baseName(frozen, kind)));
+                writeSignedVarLong(Money.fromDouble(frozen.getBaseItem().getPrice()));
+                writeVarInt(frozen.getModifiers().size());
+                for (String modifier : frozen.getModifiers()) {
+                    writeByte(MenuModifier.forName(modifier).ordinal());
+                }
+            }
+        }
+    }
+
+    private static List<OrderItem> readItems(ByteBuffer in) {
+        String[] strings = new String[readVarInt(in)];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = readString(in);
+        }
+        int count = readVarInt(in);
+        List<OrderItem> items = new ArrayList<>(count);
+        MenuModifier[] modifiers = MenuModifier.values();
+        for (int i = 0; i < count; i++) {
+            int quantity = readVarInt(in);
+            byte form = in.get();
+            MenuItem item;
+            if (form == RECORDED) {
+                String description = strings[readVarInt(in)];
+                long price = readSignedVarLong(in);
+                item = new RecordedMenuItem(description, price, readVarInt(in));
+            } else if (form == BUILT) {
+                byte kind = in.get();
+                String name = strings[readVarInt(in)];
+                double price = Money.toDouble(readSignedVarLong(in));
+                if (kind == PIZZA_KIND) {
+                    item = new PizzaItem(name, price);
+                } else if (kind == BURGER_KIND) {
+                    item = new BurgerItem(name, price);
+                } else {
+                    throw new IllegalArgumentException("Unknown item kind: " + kind);
+                }
+                int applied = readVarInt(in);
+                for (int m = 0; m < applied; m++) {
+                    item = modifiers[in.get()].applyTo(item);
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown line form: " + form);
+            }
+            items.add(new OrderItem(item, quantity));
+        }
+        return items;
+    }
+
+    // Pizza/burger bases whose extras are all known modifiers can be rebuilt exactly
+    private static byte kindOf(FrozenMenuItem item) {
+        MenuItem base = item.getBaseItem();
+        byte kind;
+        if (base instanceof PizzaItem) {
+            kind = PIZZA_KIND;
+        } else if (base instanceof BurgerItem) {
+            kind = BURGER_KIND;
+        } else {
+            return OTHER_KIND;
+        }
+        if (!base.getDescription().endsWith(SUFFIXES[kind])) {
+            return OTHER_KIND;
+        }
+        for (String modifier : item.getModifiers()) {
+            if (MenuModifier.forName(modifier) == null) {
+                return OTHER_KIND;
+            }
+        }
+        return kind;
+    }
+
+    private static String baseName(FrozenMenuItem item, byte kind) {
+        String description = item.getBaseItem().getDescription();
+        return description.substring(0, description.length() - SUFFIXES[kind].length());
+    }
+
+    private void intern(String text) {
+        if (!dictionary.containsKey(text)) {
+            dictionary.put(text, dictionaryBytes.size());
+            dictionaryBytes.add(text.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    // ===== Primitives =====
+
+    private void start(byte kind) {
+        length = 0;
+        writeByte(VERSION);
+        writeByte(kind);
+    }
+
+    private ByteBuffer finish() {
+        return ByteBuffer.wrap(Arrays.copyOf(out, length));
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > out.length) {
+            out = Arrays.copyOf(out, Math.max(out.length * 2, length + extra));
+        }
+    }
+
+    private void writeByte(int value) {
+        ensure(1);
+        out[length++] = (byte) value;
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, out, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeString(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        writeBytes(bytes);
+    }
+
+    private void writeVarInt(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value cannot be written unsigned: " + value);
+        }
+        writeVarLong(value);
+    }
+
+    private void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    private void writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            out[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[length++] = (byte) value;
+    }
+
+    private static String readString(ByteBuffer in) {
+        int size = readVarInt(in);
+        if (size > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String text;
+        if (in.hasArray()) {
+            text = new String(in.array(), in.arrayOffset() + in.position(), size, StandardCharsets.UTF_8);
+        } else {
+            ByteBuffer slice = in.duplicate();
+            slice.limit(in.position() + size);
+            text = StandardCharsets.UTF_8.decode(slice).toString();
+        }
+        in.position(in.position() + size);
+        return text;
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        long value = readVarLong(in);
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Varint out of int range: " + value);
+        }
+        return (int) value;
+    }
+
+    private static long readSignedVarLong(ByteBuffer in) {
+        long raw = readVarLong(in);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+}
@@ -0,0 +1,158 @@
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Standalone correctness checks for OrderCodec, kept apart from the timings in
+ * PerformanceBenchmark. Fails with IllegalStateException (non-zero exit) when:
+ *  - an order, item list or bill does not survive an encode/decode round trip,
+ *  - the Java serialization baseline the benchmark compares against loses data,
+ *  - a version 1 bill no longer encodes to the recorded bytes (the wire format
+ *    changed without a VERSION bump), or
+ *  - a message with another version, another kind, or a truncated body is accepted,
+ *    or leaves the buffer position moved.
+ * Run by "gradle check"; also usable on its own: java OrderCodecCheck
+ */
+public class OrderCodecCheck {
+    // encodeBill(versionOneBill()) at VERSION 1: header, order id, amounts / dictionary / lines
+    private static final String VERSION_ONE_BILL =
+        "0102" + "2a" + "a0ba01" + "9009" + "e618" + "f6c901"
+        + "03" + "0f4974616c69616e20436869636b656e" + "0a4d617267686572697461" + "0c436c61737369632042656566"
+        + "03" + "01010100807d00" + "02010101f8550100" + "03010202b06d020001";
+
+    public static void main(String[] args) {
+        Log.setLevel(LogLevel.OFF);
+        OrderCodec codec = new OrderCodec();
+        OrderCalculator calculator = PerformanceBenchmark.calculatorWith(2);
+        checkOrderRoundTrip(codec, calculator);
+        for (int lines : new int[] { 1, 10, 100 }) {
+            Bill bill = new BillGenerator().generateBill(42, PerformanceBenchmark.menuLines(lines), calculator);
+            checkBillRoundTrip(bill, codec.decodeBill(codec.encodeBill(bill)));
+            checkBillRoundTrip(bill, PerformanceBenchmark.javaDeserialize(PerformanceBenchmark.javaSerialize(bill)));
+        }
+        checkBackToBack(codec, calculator);
+        checkVersionOneBytes(codec);
+        checkRejected(codec, calculator);
+        System.out.println("OrderCodecCheck passed");
+    }
+
+    private static void checkOrderRoundTrip(OrderCodec codec, OrderCalculator calculator) {
+        OrderTemplate order = new DineInOrder(null, null, calculator);
+        order.setCustomerName("Round Trip");
+        for (OrderItem line : PerformanceBenchmark.menuLines(5)) {
+            order.addItem(line);
+        }
+        OrderRegistry.getInstance().remove(order.getOrderId());
+        OrderSnapshot decoded = codec.decodeOrder(codec.encodeOrder(order));
+        if (decoded.getOrderId() != order.getOrderId() || decoded.getOrderType() != order.getOrderType()
+            || decoded.getTableNumber() != order.getTableNumber()
+            || !decoded.getCustomerName().equals(order.getCustomerName()) || decoded.getStatus() != order.getStatus()) {
+            throw new IllegalStateException("Order header did not survive the codec round trip");
+        }
+        checkLines(order.getPricedOrder().getItems(), decoded.getItems());
+        checkLines(order.getPricedOrder().getItems(), codec.decodeItems(codec.encodeItems(order.getPricedOrder().getItems())));
+    }
+
+    // Messages read back to back from one buffer, each decode stopping at its own end
+    private static void checkBackToBack(OrderCodec codec, OrderCalculator calculator) {
+        Bill first = new BillGenerator().generateBill(1, PerformanceBenchmark.menuLines(3), calculator);
+        Bill second = new BillGenerator().generateBill(2, PerformanceBenchmark.menuLines(7), calculator);
+        ByteBuffer a = codec.encodeBill(first);
+        ByteBuffer b = codec.encodeBill(second);
+        ByteBuffer both = ByteBuffer.allocate(a.remaining() + b.remaining()).put(a).put(b).flip();
+        checkBillRoundTrip(first, codec.decodeBill(both));
+        checkBillRoundTrip(second, codec.decodeBill(both));
+        if (both.hasRemaining()) {
+            throw new IllegalStateException("Back-to-back decode left " + both.remaining() + " bytes unread");
+        }
+    }
+
+    private static void checkVersionOneBytes(OrderCodec codec) {
+        String actual = hex(codec.encodeBill(versionOneBill()));
+        if (OrderCodec.VERSION == 1 && !actual.equals(VERSION_ONE_BILL)) {
+            throw new IllegalStateException("Version 1 bill encoding changed without a VERSION bump: " + actual);
+        }
+        checkBillRoundTrip(versionOneBill(), codec.decodeBill(ByteBuffer.wrap(unhex(VERSION_ONE_BILL))));
+    }
+
+    private static void checkRejected(OrderCodec codec, OrderCalculator calculator) {
+        Bill bill = new BillGenerator().generateBill(42, PerformanceBenchmark.menuLines(10), calculator);
+        byte[] valid = bytes(codec.encodeBill(bill));
+
+        byte[] newer = valid.clone();
+        newer[0] = (byte) (OrderCodec.VERSION + 1);
+        expectRejected("a newer version", ByteBuffer.wrap(newer), codec::decodeBill);
+        byte[] older = valid.clone();
+        older[0] = (byte) (OrderCodec.VERSION - 1);
+        expectRejected("an older version", ByteBuffer.wrap(older), codec::decodeBill);
+        expectRejected("another message kind", ByteBuffer.wrap(valid), codec::decodeOrder);
+        expectRejected("a truncated body", ByteBuffer.wrap(valid, 0, valid.length - 3), codec::decodeBill);
+    }
+
+    private interface Decoder {
+        Object decode(ByteBuffer in);
+    }
+
+    private static void expectRejected(String what, ByteBuffer in, Decoder decoder) {
+        int position = in.position();
+        try {
+            decoder.decode(in);
+        } catch (IllegalArgumentException e) {
+            if (in.position() != position) {
+                throw new IllegalStateException("Rejecting " + what + " moved the buffer position");
+            }
+            return;
+        }
+        throw new IllegalStateException("Decoder accepted " + what);
+    }
+
+    private static void checkBillRoundTrip(Bill expected, Bill actual) {
+        if (expected.getOrderId() != actual.getOrderId() || expected.getSubtotalCents() != actual.getSubtotalCents()
+            || expected.getDiscountCents() != actual.getDiscountCents() || expected.getTaxCents() != actual.getTaxCents()
+            || expected.getTotalCents() != actual.getTotalCents()) {
+            throw new IllegalStateException("Bill amounts did not survive the round trip");
+        }
+        checkLines(expected.getItems(), actual.getItems());
+    }
+
+    private static void checkLines(List<OrderItem> expected, List<OrderItem> actual) {
+        if (expected.size() != actual.size()) {
+            throw new IllegalStateException("Line count changed in the round trip");
+        }
+        for (int i = 0; i < expected.size(); i++) {
+            OrderItem e = expected.get(i);
+            OrderItem a = actual.get(i);
+            if (!e.getDescription().equals(a.getDescription()) || e.getSubtotalCents() != a.getSubtotalCents()
+                || e.getCategoryMask() != a.getCategoryMask()) {
+                throw new IllegalStateException("Line " + i + " changed in the round trip: " + a.getDescription());
+            }
+        }
+    }
+
+    // Fixed amounts, so the recorded bytes do not depend on discount or tax rules
+    private static Bill versionOneBill() {
+        List<OrderItem> items = PerformanceBenchmark.menuLines(3);
+        return new Bill(42, items, 11_920, 584, 1_587, 12_923);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] data = new byte[buffer.remaining()];
+        buffer.duplicate().get(data);
+        return data;
+    }
+
+    private static String hex(ByteBuffer buffer) {
+        StringBuilder text = new StringBuilder();
+        for (byte b : bytes(buffer)) {
+            text.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return text.toString();
+    }
+
+    private static byte[] unhex(String text) {
+        byte[] data = new byte[text.length() / 2];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) Integer.parseInt(text.substring(2 * i, 2 * i + 2), 16);
+        }
+        return data;
+    }
+}
@@ -14,18 +14,24 @@ public class OrderFactory {
                 if (tableNumber == null || tableNumber.trim().isEmpty()) {
                     throw new IllegalArgumentException("Table number is required for dine-in orders");
                 }
-                return new DineInOrder(paymentHandler, notifier, calculator);
+                return register(new DineInOrder(paymentHandler, notifier, calculator));
 
             case "takeaway":
                 String pickupTime = (String) parameters.get("pickup");
                 if (pickupTime == null || pickupTime.trim().isEmpty()) {
                     throw new IllegalArgumentException("Pickup time is required for takeaway orders");
                 }
-                return new TakeawayOrder(paymentHandler, notifier, calculator);
+                return register(new TakeawayOrder(paymentHandler, notifier, calculator));
 
             default:
                 throw new IllegalArgumentException("Invalid order type: " + orderType);
         }
     }
+
+    // Every order made here can be looked up by ID
+    private static OrderTemplate register(OrderTemplate order) {
+        OrderRegistry.getInstance().register(order);
+        return order;
+    }
 }
 
@@ -0,0 +1,81 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out unique order IDs without threads fighting over one counter.
+ * Each thread reserves a block of IDs from the shared counter and then counts
+ * through it locally, so the shared CAS happens once per block. IDs are unique and
+ * increasing per thread; with a block size of 1 they are strictly increasing overall.
+ *
+ * IDs are only unique within one allocator. Processes that hand out IDs for the same
+ * order space (the shard JVMs behind one ShardedRuntime) each take their own partition:
+ * partition p owns [p * PARTITION_SIZE, (p + 1) * PARTITION_SIZE), partition 0 starting at 1.
+ */
+public class OrderIdAllocator {
+    public static final int PARTITION_BITS = 24;
+    public static final int PARTITION_SIZE = 1 << PARTITION_BITS;
+    public static final int MAX_PARTITION = Integer.MAX_VALUE >> PARTITION_BITS;
+
+    private static volatile OrderIdAllocator instance = new OrderIdAllocator(1, 64);
+
+    private final int firstId;
+    private final AtomicInteger nextBlockStart;
+    private final long endId; // exclusive
+    private final int blockSize;
+    // [next id, end of block (exclusive)]
+    private final ThreadLocal<int[]> block = ThreadLocal.withInitial(() -> new int[2]);
+
+    public OrderIdAllocator(int firstId, int blockSize) {
+        this(firstId, Integer.MAX_VALUE + 1L, blockSize);
+    }
+
+    private OrderIdAllocator(int firstId, long endId, int blockSize) {
+        if (firstId <= 0) {
+            throw new IllegalArgumentException("First ID must be positive");
+        }
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.firstId = firstId;
+        this.nextBlockStart = new AtomicInteger(firstId);
+        this.endId = endId;
+        this.blockSize = blockSize;
+    }
+
+    // Allocator confined to one partition of the ID space
+    public static OrderIdAllocator forPartition(int partition, int blockSize) {
+        if (partition < 0 || partition > MAX_PARTITION) {
+            throw new IllegalArgumentException("Partition must be between 0 and " + MAX_PARTITION);
+        }
+        long start = (long) partition << PARTITION_BITS;
+        return new OrderIdAllocator((int) Math.max(start, 1), start + PARTITION_SIZE, blockSize);
+    }
+
+    public static OrderIdAllocator getInstance() {
+        return instance;
+    }
+
+    // Moves this process's orders into their own partition; call before the first order is created
+    public static synchronized void usePartition(int partition) {
+        if (instance.nextBlockStart.get() != instance.firstId) {
+            throw new IllegalStateException("Order IDs were already handed out from the current partition");
+        }
+        instance = forPartition(partition, instance.blockSize);
+    }
+
+    public int nextId() {
+        int[] range = block.get();
+        if (range[0] == range[1]) {
+            int start = nextBlockStart.getAndAdd(blockSize);
+            if (start <= 0 || start + (long) blockSize > endId) {
+                throw new IllegalStateException("Order IDs exhausted");
+            }
+            range[0] = start;
+            range[1] = start + blockSize;
+        }
+        return range[0]++;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+}
@@ -1,14 +1,60 @@
 public class OrderItem {
-    private final MenuItem item;
+    // Frozen once here so every pricing path reads fields instead of walking the decorator chain.
+    // Lines built from a catalogue id freeze lazily; both lazy fields are immutable values,
+    // so a racing first read at worst builds them twice.
+    private FrozenMenuItem item;
+    private final MenuCatalog catalog;
+    private final int itemId;
     private final int quantity;
+    private final long subtotalCents;
+    private final int categoryMask;
+    private String description;
 
     public OrderItem(MenuItem item2, int quantity) {
-        this.item = item2;
+        this.item = FrozenMenuItem.of(item2);
+        this.catalog = null;
+        this.itemId = -1;
         this.quantity = Math.max(1, quantity);
+        this.subtotalCents = Math.multiplyExact(item.getPriceCents(), (long) this.quantity);
+        this.categoryMask = item.getCategoryMask();
+        this.description = item.getDescription() + " x" + this.quantity;
     }
 
-    public MenuItem getMenuItem() { return item; }
+    // References an undecorated catalogue item by id; pricing reads the catalogue's columns
+    public OrderItem(MenuCatalog catalog, int itemId, int quantity) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        this.catalog = catalog;
+        this.itemId = itemId;
+        this.quantity = Math.max(1, quantity);
+        this.subtotalCents = Math.multiplyExact(catalog.getPriceCents(itemId), (long) this.quantity);
+        this.categoryMask = catalog.getCategoryMask(itemId);
+    }
+
+    public FrozenMenuItem getMenuItem() {
+        FrozenMenuItem frozen = item;
+        if (frozen == null) {
+            frozen = FrozenMenuItem.of(catalog.getItem(itemId));
+            item = frozen;
+        }
+        return frozen;
+    }
+
+    // -1 unless the line was built from a MenuCatalog id
+    public int getItemId() { return itemId; }
+    public MenuCatalog getCatalog() { return catalog; }
     public int getQuantity() { return quantity; }
-    public double getSubtotal() { return item.getPrice() * quantity; }
-    public String getDescription() { return item.getDescription() + " x" + quantity; }
-}
\ No newline at end of file
+    public long getSubtotalCents() { return subtotalCents; }
+    public double getSubtotal() { return Money.toDouble(subtotalCents); }
+    public int getCategoryMask() { return categoryMask; }
+
+    public String getDescription() {
+        String text = description;
+        if (text == null) {
+            text = catalog.getDescription(itemId) + " x" + quantity;
+            description = text;
+        }
+        return text;
+    }
+}
@@ -0,0 +1,213 @@
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.*;
+
+/**
+ * Low-overhead instrumentation for the order lifecycle: latency histograms and counters
+ * per template step, per payment method and per observer, plus kitchen queue depths.
+ * Everything is lock-free (LatencyHistogram, LongAdder). When disabled, each hook costs
+ * one volatile read and records nothing.
+ * Exposed over JMX (see OrderMetricsMXBean) and as a periodic text snapshot.
+ */
+public class OrderMetrics implements OrderMetricsMXBean {
+    private static final OrderMetrics instance = new OrderMetrics();
+    private static final String OBJECT_NAME = "restaurant:type=OrderMetrics";
+
+    private volatile boolean enabled;
+    private final Map<OrderStep, LatencyHistogram> steps = new EnumMap<>(OrderStep.class);
+    private final Map<String, LatencyHistogram> payments = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> paymentFailures = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> observers = new ConcurrentHashMap<>();
+    private final Map<String, LatencyHistogram> queueDepths = new ConcurrentHashMap<>();
+    private final Map<String, Integer> currentQueueDepths = new ConcurrentHashMap<>();
+    private ScheduledExecutorService dumper;
+
+    private OrderMetrics() {
+        for (OrderStep step : OrderStep.values()) {
+            steps.put(step, new LatencyHistogram());
+        }
+    }
+
+    public static OrderMetrics getInstance() {
+        return instance;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    // ===== Recording hooks =====
+
+    public void recordStep(OrderStep step, long nanos) {
+        if (enabled) {
+            steps.get(step).record(nanos);
+        }
+    }
+
+    public void recordPayment(String paymentMethod, long nanos, boolean success) {
+        if (enabled) {
+            payments.computeIfAbsent(paymentMethod, k -> new LatencyHistogram()).record(nanos);
+            if (!success) {
+                paymentFailures.computeIfAbsent(paymentMethod, k -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    public void recordObserver(String observerName, long nanos) {
+        if (enabled) {
+            observers.computeIfAbsent(observerName, k -> new LatencyHistogram()).record(nanos);
+        }
+    }
+
+    public void recordQueueDepth(String kitchenId, int depth) {
+        if (enabled) {
+            currentQueueDepths.put(kitchenId, depth);
+            queueDepths.computeIfAbsent(kitchenId, k -> new LatencyHistogram()).record(depth);
+        }
+    }
+
+    // ===== JMX =====
+
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register order metrics MBean", e);
+        }
+    }
+
+    @Override
+    public Map<String, Long> getStepCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        steps.forEach((step, histogram) -> result.put(step.name(), histogram.getCount()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getStepMeanMicros() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        steps.forEach((step, histogram) -> result.put(step.name(), histogram.getMean() / 1000.0));
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getStepP99Micros() {
+        Map<String, Double> result = new LinkedHashMap<>();
+        steps.forEach((step, histogram) -> result.put(step.name(), histogram.getValueAtPercentile(99) / 1000.0));
+        return result;
+    }
+
+    @Override
+    public Map<String, Long> getPaymentCounts() {
+        return counts(payments);
+    }
+
+    @Override
+    public Map<String, Long> getPaymentFailures() {
+        Map<String, Long> result = new TreeMap<>();
+        paymentFailures.forEach((method, adder) -> result.put(method, adder.sum()));
+        return result;
+    }
+
+    @Override
+    public Map<String, Double> getPaymentP99Micros() {
+        return p99Micros(payments);
+    }
+
+    @Override
+    public Map<String, Long> getObserverCounts() {
+        return counts(observers);
+    }
+
+    @Override
+    public Map<String, Double> getObserverP99Micros() {
+        return p99Micros(observers);
+    }
+
+    @Override
+    public Map<String, Integer> getKitchenQueueDepths() {
+        return new TreeMap<>(currentQueueDepths);
+    }
+
+    @Override
+    public Map<String, Long> getKitchenMaxQueueDepths() {
+        Map<String, Long> result = new TreeMap<>();
+        queueDepths.forEach((kitchen, histogram) -> result.put(kitchen, histogram.getMax()));
+        return result;
+    }
+
+    @Override
+    public String getSnapshot() {
+        StringBuilder sb = new StringBuilder("=== Order metrics ===\n");
+        for (Map.Entry<OrderStep, LatencyHistogram> entry : steps.entrySet()) {
+            sb.append("step ").append(entry.getKey()).append(": ")
+                .append(entry.getValue().summary(1000.0, "us")).append('\n');
+        }
+        appendAll(sb, "payment ", payments, 1000.0, "us");
+        paymentFailures.forEach((method, adder) ->
+            sb.append("payment ").append(method).append(" failures=").append(adder.sum()).append('\n'));
+        appendAll(sb, "observer ", observers, 1000.0, "us");
+        appendAll(sb, "queue ", queueDepths, 1.0, "");
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        steps.values().forEach(LatencyHistogram::reset);
+        payments.clear();
+        paymentFailures.clear();
+        observers.clear();
+        queueDepths.clear();
+        currentQueueDepths.clear();
+    }
+
+    // ===== Periodic dump =====
+
+    public synchronized void startPeriodicDump(long periodMillis, PrintStream out) {
+        stopPeriodicDump();
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "order-metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(() -> out.print(getSnapshot()), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stopPeriodicDump() {
+        if (dumper != null) {
+            dumper.shutdown();
+            dumper = null;
+        }
+    }
+
+    private static Map<String, Long> counts(Map<String, LatencyHistogram> histograms) {
+        Map<String, Long> result = new TreeMap<>();
+        histograms.forEach((name, histogram) -> result.put(name, histogram.getCount()));
+        return result;
+    }
+
+    private static Map<String, Double> p99Micros(Map<String, LatencyHistogram> histograms) {
+        Map<String, Double> result = new TreeMap<>();
+        histograms.forEach((name, histogram) -> result.put(name, histogram.getValueAtPercentile(99) / 1000.0));
+        return result;
+    }
+
+    private static void appendAll(StringBuilder sb, String prefix, Map<String, LatencyHistogram> histograms,
+                                  double scale, String unit) {
+        new TreeMap<>(histograms).forEach((name, histogram) ->
+            sb.append(prefix).append(name).append(": ").append(histogram.summary(scale, unit)).append('\n'));
+    }
+}
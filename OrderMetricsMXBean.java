@@ -0,0 +1,27 @@
+import java.util.Map;
+
+/**
+ * JMX view of OrderMetrics, registered as restaurant:type=OrderMetrics.
+ * Latencies are in microseconds.
+ */
+public interface OrderMetricsMXBean {
+    boolean isEnabled();
+    void setEnabled(boolean enabled);
+
+    Map<String, Long> getStepCounts();
+    Map<String, Double> getStepMeanMicros();
+    Map<String, Double> getStepP99Micros();
+
+    Map<String, Long> getPaymentCounts();
+    Map<String, Long> getPaymentFailures();
+    Map<String, Double> getPaymentP99Micros();
+
+    Map<String, Long> getObserverCounts();
+    Map<String, Double> getObserverP99Micros();
+
+    Map<String, Integer> getKitchenQueueDepths();
+    Map<String, Long> getKitchenMaxQueueDepths();
+
+    String getSnapshot();
+    void reset();
+}
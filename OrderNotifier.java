@@ -1,36 +1,128 @@
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 public class OrderNotifier {
+    // Copy-on-write: registration is rare, notification is hot and iterates without copying
     private final List<Observer> observers;
+    // Keyed by the registered observer (the mailbox, for async ones); guarded by this
+    private final Map<Observer, OrderSubscription> subscriptions = new IdentityHashMap<>();
+    // Rebuilt on every registration change; notifyObservers only reads it
+    private volatile OrderRoutingIndex routingIndex =
+        new OrderRoutingIndex(Collections.emptyList(), Collections.emptyList());
 
     public OrderNotifier() {
-        this.observers = new ArrayList<>();
+        this.observers = new CopyOnWriteArrayList<>();
     }
 
     public void registerObserver(Observer observer) {
-        if (observer != null && !observers.contains(observer)) {
-            observers.add(observer);
+        registerObserver(observer, OrderSubscription.all());
+    }
+
+    // Only orders matching the subscription reach the observer
+    public synchronized void registerObserver(Observer observer, OrderSubscription subscription) {
+        if (observer != null && find(observer) == null) {
+            add(observer, subscription);
+        }
+    }
+
+    // Async mode: the observer gets its own bounded mailbox and worker thread,
+    // so notifyObservers only pays for an enqueue
+    public void registerObserver(Observer observer, int mailboxCapacity, OverflowPolicy policy, long timeoutMillis) {
+        registerObserver(observer, OrderSubscription.all(), mailboxCapacity, policy, timeoutMillis);
+    }
+
+    public synchronized void registerObserver(Observer observer, OrderSubscription subscription, int mailboxCapacity,
+                                              OverflowPolicy policy, long timeoutMillis) {
+        if (observer != null && find(observer) == null) {
+            add(new ObserverMailbox(observer, mailboxCapacity, policy, timeoutMillis), subscription);
         }
     }
 
-    public void removeObserver(Observer observer) {
-        observers.remove(observer);
+    public synchronized void removeObserver(Observer observer) {
+        Observer registered = find(observer);
+        if (registered != null && observers.remove(registered)) {
+            subscriptions.remove(registered);
+            rebuildIndex();
+            shutdownIfMailbox(registered);
+        }
     }
 
     public void notifyObservers(OrderTemplate order) {
-        // Create copy to avoid concurrent modification issues
-        List<Observer> observersCopy = new ArrayList<>(observers);
-        for (Observer observer : observersCopy) {
+        Observer[] routed = routingIndex.route(order);
+        OrderMetrics metrics = OrderMetrics.getInstance();
+        if (!metrics.isEnabled()) {
+            for (Observer observer : routed) {
+                observer.update(order);
+            }
+            return;
+        }
+        for (Observer observer : routed) {
+            long start = System.nanoTime();
             observer.update(order);
+            metrics.recordObserver(observerName(observer), System.nanoTime() - start);
         }
     }
 
+    public ObserverMailbox getMailbox(Observer observer) {
+        Observer registered = find(observer);
+        return registered instanceof ObserverMailbox ? (ObserverMailbox) registered : null;
+    }
+
+    // The subscription an observer was registered with, or null if it is not registered
+    public synchronized OrderSubscription getSubscription(Observer observer) {
+        Observer registered = find(observer);
+        return registered != null ? subscriptions.get(registered) : null;
+    }
+
     public int getObserverCount() {
         return observers.size();
     }
 
-    public void clearObservers() {
+    public synchronized void clearObservers() {
+        for (Observer observer : observers) {
+            shutdownIfMailbox(observer);
+        }
         observers.clear();
+        subscriptions.clear();
+        rebuildIndex();
     }
-}
 
+    private void add(Observer registered, OrderSubscription subscription) {
+        observers.add(registered);
+        subscriptions.put(registered, subscription != null ? subscription : OrderSubscription.all());
+        rebuildIndex();
+    }
+
+    private void rebuildIndex() {
+        List<Observer> snapshot = new ArrayList<>(observers);
+        List<OrderSubscription> filters = new ArrayList<>(snapshot.size());
+        for (Observer registered : snapshot) {
+            filters.add(subscriptions.get(registered));
+        }
+        routingIndex = new OrderRoutingIndex(snapshot, filters);
+    }
+
+    // Finds an observer whether it was registered directly or behind a mailbox
+    private Observer find(Observer observer) {
+        for (Observer registered : observers) {
+            if (registered == observer
+                || (registered instanceof ObserverMailbox && ((ObserverMailbox) registered).getTarget() == observer)) {
+                return registered;
+            }
+        }
+        return null;
+    }
+
+    private static String observerName(Observer observer) {
+        if (observer instanceof ObserverMailbox) {
+            return ((ObserverMailbox) observer).getTarget().getClass().getSimpleName() + " (async)";
+        }
+        return observer.getClass().getSimpleName();
+    }
+
+    private void shutdownIfMailbox(Observer observer) {
+        if (observer instanceof ObserverMailbox) {
+            ((ObserverMailbox) observer).shutdown();
+        }
+    }
+}
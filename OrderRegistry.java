@@ -0,0 +1,257 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrent in-memory store of live and recent orders.
+ * Primary index is orderId -> order (O(1) lookup for kitchens, waiters and billing).
+ * Secondary indexes by status, order type, customer name and table number let queries
+ * start from the smallest matching set instead of scanning every order of the day.
+ *
+ * Status and customer changes go through the order (setStatus/setCustomerName), which
+ * calls back here: the order is added under the new key, its field is switched, then it
+ * is removed from the old key. Queries re-check each candidate's current fields, so a
+ * concurrent change is seen either completely or not at all.
+ *
+ * Finished orders (served, completed or cancelled) stay queryable for a retention window,
+ * one day by default, and are then evicted. register() sweeps the finished indexes at most
+ * once a minute (or once per window, if shorter); evictExpired() sweeps on demand. Sweeps
+ * run outside any order's lock, so they never hold one order while locking another.
+ */
+public class OrderRegistry {
+    private static final OrderRegistry instance = new OrderRegistry();
+    private static final OrderStatus[] FINISHED = { OrderStatus.SERVED, OrderStatus.COMPLETED, OrderStatus.CANCELLED };
+    private static final long MAX_SWEEP_INTERVAL_MILLIS = 60_000L;
+
+    private final Map<Integer, OrderTemplate> orders = new ConcurrentHashMap<>();
+    private final Map<OrderStatus, Set<OrderTemplate>> byStatus = new EnumMap<>(OrderStatus.class);
+    private final Map<OrderType, Set<OrderTemplate>> byType = new EnumMap<>(OrderType.class);
+    private final Map<String, Set<OrderTemplate>> byCustomer = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<OrderTemplate>> byTable = new ConcurrentHashMap<>();
+    private volatile long retentionMillis = 24 * 60 * 60_000L;
+    private volatile long nextSweepMillis;
+
+    public OrderRegistry() {
+        // Enum-keyed indexes are filled once here and never change shape afterwards
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+        for (OrderType type : OrderType.values()) {
+            byType.put(type, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    public static OrderRegistry getInstance() {
+        return instance;
+    }
+
+    public void register(OrderTemplate order) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        if (System.currentTimeMillis() >= nextSweepMillis) {
+            evictExpired();
+        }
+        synchronized (order) {
+            OrderTemplate existing = orders.putIfAbsent(order.getOrderId(), order);
+            if (existing != null) {
+                if (existing != order) {
+                    throw new IllegalStateException("Duplicate order ID: " + order.getOrderId());
+                }
+                return;
+            }
+            byStatus.get(order.getStatus()).add(order);
+            byType.get(order.getOrderType()).add(order);
+            addTo(byCustomer, customerKey(order.getCustomerName()), order);
+            Integer table = tableOf(order);
+            if (table != null) {
+                addTo(byTable, table, order);
+            }
+            if (isFinished(order.status) && order.finishedAtMillis == 0) {
+                order.finishedAtMillis = System.currentTimeMillis();
+            }
+            order.attachRegistry(this);
+        }
+    }
+
+    // How long a finished order stays queryable before it is evicted
+    public void setRetentionMillis(long retentionMillis) {
+        if (retentionMillis < 0) {
+            throw new IllegalArgumentException("Retention cannot be negative");
+        }
+        this.retentionMillis = retentionMillis;
+        nextSweepMillis = 0;
+    }
+
+    public long getRetentionMillis() {
+        return retentionMillis;
+    }
+
+    // Removes every order that finished more than the retention window ago; returns how many
+    public int evictExpired() {
+        long now = System.currentTimeMillis();
+        long retention = retentionMillis;
+        nextSweepMillis = now + Math.min(retention, MAX_SWEEP_INTERVAL_MILLIS);
+        long cutoff = now - retention;
+        int evicted = 0;
+        for (OrderStatus status : FINISHED) {
+            for (OrderTemplate order : byStatus.get(status)) {
+                long finishedAt = order.finishedAtMillis;
+                if (finishedAt != 0 && finishedAt <= cutoff && expire(order, cutoff)) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    public OrderTemplate find(int orderId) {
+        return orders.get(orderId);
+    }
+
+    public OrderTemplate remove(int orderId) {
+        OrderTemplate order = orders.remove(orderId);
+        if (order != null) {
+            synchronized (order) {
+                order.attachRegistry(null);
+                byStatus.get(order.getStatus()).remove(order);
+                byType.get(order.getOrderType()).remove(order);
+                removeFrom(byCustomer, customerKey(order.getCustomerName()), order);
+                Integer table = tableOf(order);
+                if (table != null) {
+                    removeFrom(byTable, table, order);
+                }
+            }
+        }
+        return order;
+    }
+
+    // ===== Queries =====
+
+    public List<OrderTemplate> findByStatus(OrderStatus status) {
+        return query(status, null, null, null);
+    }
+
+    public List<OrderTemplate> findByCustomer(String customerName) {
+        return query(null, null, null, customerName);
+    }
+
+    public List<OrderTemplate> findByTable(int tableNumber) {
+        return query(null, null, tableNumber, null);
+    }
+
+    // Any null argument matches everything, e.g. query(READY, DINE_IN, 7, null)
+    public List<OrderTemplate> query(OrderStatus status, OrderType type, Integer tableNumber, String customerName) {
+        String customer = customerName != null ? customerKey(customerName) : null;
+
+        // Start from the smallest index that applies
+        Collection<OrderTemplate> candidates = null;
+        if (status != null) {
+            candidates = smaller(candidates, byStatus.get(status));
+        }
+        if (type != null) {
+            candidates = smaller(candidates, byType.get(type));
+        }
+        if (tableNumber != null) {
+            candidates = smaller(candidates, byTable.getOrDefault(tableNumber, Collections.emptySet()));
+        }
+        if (customer != null) {
+            candidates = smaller(candidates, byCustomer.getOrDefault(customer, Collections.emptySet()));
+        }
+        if (candidates == null) {
+            candidates = orders.values();
+        }
+
+        List<OrderTemplate> result = new ArrayList<>();
+        for (OrderTemplate order : candidates) {
+            if ((status == null || order.getStatus() == status)
+                && (type == null || order.getOrderType() == type)
+                && (tableNumber == null || tableNumber.equals(tableOf(order)))
+                && (customer == null || customer.equals(customerKey(order.getCustomerName())))) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    public int countByStatus(OrderStatus status) {
+        return byStatus.get(status).size();
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    public void clear() {
+        for (OrderTemplate order : new ArrayList<>(orders.values())) {
+            remove(order.getOrderId());
+        }
+    }
+
+    // Re-checked under the order's lock, in case it changed since the sweep read it
+    private boolean expire(OrderTemplate order, long cutoff) {
+        synchronized (order) {
+            if (orders.get(order.getOrderId()) != order || !isFinished(order.status)
+                || order.finishedAtMillis > cutoff) {
+                return false;
+            }
+            return remove(order.getOrderId()) != null;
+        }
+    }
+
+    // ===== Index maintenance (called by OrderTemplate while it holds its own lock) =====
+
+    void moveStatus(OrderTemplate order, OrderStatus newStatus) {
+        OrderStatus old = order.status;
+        byStatus.get(newStatus).add(order);
+        order.status = newStatus;
+        byStatus.get(old).remove(order);
+        if (!isFinished(newStatus)) {
+            order.finishedAtMillis = 0;
+        } else if (!isFinished(old)) {
+            order.finishedAtMillis = System.currentTimeMillis();
+        }
+    }
+
+    void moveCustomer(OrderTemplate order, String newName) {
+        String oldKey = customerKey(order.customerName);
+        String newKey = customerKey(newName);
+        addTo(byCustomer, newKey, order);
+        order.customerName = newName;
+        if (!oldKey.equals(newKey)) {
+            removeFrom(byCustomer, oldKey, order);
+        }
+    }
+
+    private static <K> void addTo(Map<K, Set<OrderTemplate>> index, K key, OrderTemplate order) {
+        index.compute(key, (k, set) -> {
+            if (set == null) {
+                set = ConcurrentHashMap.newKeySet();
+            }
+            set.add(order);
+            return set;
+        });
+    }
+
+    private static <K> void removeFrom(Map<K, Set<OrderTemplate>> index, K key, OrderTemplate order) {
+        index.computeIfPresent(key, (k, set) -> {
+            set.remove(order);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    private static Collection<OrderTemplate> smaller(Collection<OrderTemplate> current, Set<OrderTemplate> next) {
+        return current == null || next.size() < current.size() ? next : current;
+    }
+
+    private static String customerKey(String name) {
+        return name == null ? "" : name.trim().toLowerCase();
+    }
+
+    private static Integer tableOf(OrderTemplate order) {
+        return order instanceof DineInOrder ? ((DineInOrder) order).getTableNumber() : null;
+    }
+
+    private static boolean isFinished(OrderStatus status) {
+        return status == OrderStatus.SERVED || status == OrderStatus.COMPLETED || status == OrderStatus.CANCELLED;
+    }
+}
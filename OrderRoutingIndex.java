@@ -0,0 +1,62 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable snapshot of OrderNotifier's subscribers that answers "who wants this
+ * order?" without testing every subscription. Orders are keyed by (type, table,
+ * category mask); the first order with a given key filters the subscribers once and
+ * the resulting array is memoized, so every later order with that key costs one map
+ * lookup plus one call per interested observer. The key space is small (two order
+ * types x the site's tables x 2^categories), so the memo stays bounded. OrderNotifier
+ * builds a fresh index whenever the subscriber list changes.
+ */
+public final class OrderRoutingIndex {
+    private final Observer[] observers;
+    private final OrderSubscription[] subscriptions;
+    private final boolean unfiltered;
+    private final ConcurrentHashMap<Long, Observer[]> routes = new ConcurrentHashMap<>();
+
+    // observers and subscriptions are parallel, in registration (= notification) order
+    public OrderRoutingIndex(List<Observer> observers, List<OrderSubscription> subscriptions) {
+        if (observers.size() != subscriptions.size()) {
+            throw new IllegalArgumentException("Every observer needs exactly one subscription");
+        }
+        this.observers = observers.toArray(new Observer[0]);
+        this.subscriptions = subscriptions.toArray(new OrderSubscription[0]);
+        boolean all = true;
+        for (OrderSubscription subscription : this.subscriptions) {
+            all &= subscription.isUnfiltered();
+        }
+        this.unfiltered = all;
+    }
+
+    // Callers must not modify the returned array
+    public Observer[] route(OrderTemplate order) {
+        if (unfiltered) {
+            return observers;
+        }
+        OrderType type = order.getOrderType();
+        int table = order.getTableNumber();
+        int categories = order.getCategoryMask();
+        long key = ((long) type.ordinal() << 56) | ((table & 0xFFFFFFFFL) << 24) | (categories & 0xFFFFFF);
+        Observer[] routed = routes.get(key);
+        if (routed == null) {
+            routed = routes.computeIfAbsent(key, k -> filter(type, table, categories));
+        }
+        return routed;
+    }
+
+    public int size() {
+        return observers.length;
+    }
+
+    private Observer[] filter(OrderType type, int table, int categories) {
+        List<Observer> matched = new ArrayList<>();
+        for (int i = 0; i < observers.length; i++) {
+            if (subscriptions[i].matches(type, table, categories)) {
+                matched.add(observers[i]);
+            }
+        }
+        return matched.toArray(new Observer[0]);
+    }
+}
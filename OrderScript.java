@@ -0,0 +1,195 @@
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * One scripted order for the headless LoadDriver: customer, order type, items with
+ * extras, and payment. Scripts are plain text, one order per line:
+ *
+ *   customer|dinein|Italian Chicken*2+cheese+sauce;Classic Beef*1|card:4111111111111111:123
+ *
+ * Payment is cash:&lt;cashierId&gt;, card:&lt;number&gt;:&lt;auth&gt; or wallet:&lt;walletId&gt;.
+ * An optional fifth field carries an order ID assigned by the sender (ShardedRuntime);
+ * without it the shard that runs the order allocates one.
+ * Blank lines and lines starting with # are ignored when loading a file.
+ */
+public class OrderScript {
+    private final String customerName;
+    private final String orderType;
+    private final List<Line> lines;
+    private final String payment;
+    private final int orderId; // 0 = not assigned
+
+    public OrderScript(String customerName, String orderType, List<Line> lines, String payment) {
+        this(customerName, orderType, lines, payment, 0);
+    }
+
+    private OrderScript(String customerName, String orderType, List<Line> lines, String payment, int orderId) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Order script needs at least one item");
+        }
+        if (orderId < 0) {
+            throw new IllegalArgumentException("Order ID cannot be negative");
+        }
+        this.customerName = customerName;
+        this.orderType = orderType;
+        this.lines = Collections.unmodifiableList(new ArrayList<>(lines));
+        this.payment = payment;
+        this.orderId = orderId;
+    }
+
+    // The same order with its ID fixed in advance
+    public OrderScript withOrderId(int orderId) {
+        if (orderId <= 0) {
+            throw new IllegalArgumentException("Order ID must be positive");
+        }
+        return new OrderScript(customerName, orderType, lines, payment, orderId);
+    }
+
+    public static OrderScript parse(String text) {
+        String[] parts = text.split("\\|");
+        if (parts.length != 4 && parts.length != 5) {
+            throw new IllegalArgumentException("Expected customer|type|items|payment[|orderId]: " + text);
+        }
+        List<Line> lines = new ArrayList<>();
+        for (String entry : parts[2].split(";")) {
+            String[] extras = entry.split("\\+");
+            String[] itemAndQty = extras[0].split("\\*");
+            int quantity = itemAndQty.length > 1 ? Integer.parseInt(itemAndQty[1].trim()) : 1;
+            boolean cheese = false;
+            boolean sauce = false;
+            for (int i = 1; i < extras.length; i++) {
+                String extra = extras[i].trim().toLowerCase();
+                if (extra.equals("cheese")) cheese = true;
+                else if (extra.equals("sauce")) sauce = true;
+                else throw new IllegalArgumentException("Unknown extra: " + extras[i]);
+            }
+            lines.add(new Line(itemAndQty[0].trim(), quantity, cheese, sauce));
+        }
+        int orderId = parts.length == 5 ? Integer.parseInt(parts[4].trim()) : 0;
+        return new OrderScript(parts[0].trim(), parts[1].trim(), lines, parts[3].trim(), orderId);
+    }
+
+    public static List<OrderScript> load(Path file) throws IOException {
+        List<OrderScript> scripts = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                scripts.add(parse(trimmed));
+            }
+        }
+        return scripts;
+    }
+
+    // A plausible random order over the given menu
+    public static OrderScript random(Menu menu, Random random) {
+        List<MenuItem> items = menu.getItems();
+        List<Line> lines = new ArrayList<>();
+        int count = 1 + random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            MenuItem item = items.get(random.nextInt(items.size()));
+            lines.add(new Line(item.getDescription(), 1 + random.nextInt(3), random.nextBoolean(), random.nextInt(3) == 0));
+        }
+        String type = random.nextBoolean() ? "dinein" : "takeaway";
+        String payment;
+        switch (random.nextInt(3)) {
+            case 0:
+                payment = "cash:C" + random.nextInt(10);
+                break;
+            case 1:
+                payment = "card:4111111111111111:" + (100 + random.nextInt(900));
+                break;
+            default:
+                payment = "wallet:W" + random.nextInt(1000);
+        }
+        return new OrderScript("Customer" + random.nextInt(10_000), type, lines, payment);
+    }
+
+    public PaymentStrategy createPayment() {
+        String[] parts = payment.split(":");
+        switch (parts[0].toLowerCase()) {
+            case "cash":
+                return new CashPayment(parts.length > 1 ? parts[1] : "Default");
+            case "card":
+                if (parts.length < 3) {
+                    throw new IllegalArgumentException("Card payment needs card:<number>:<auth>");
+                }
+                return new CreditCardPayment(parts[1], parts[2]);
+            case "wallet":
+                if (parts.length < 2) {
+                    throw new IllegalArgumentException("Wallet payment needs wallet:<walletId>");
+                }
+                return new MobileWalletPayment(parts[1]);
+            default:
+                throw new IllegalArgumentException("Unknown payment method: " + payment);
+        }
+    }
+
+    public String toLine() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(customerName).append('|').append(orderType).append('|');
+        for (int i = 0; i < lines.size(); i++) {
+            Line line = lines.get(i);
+            if (i > 0) sb.append(';');
+            sb.append(line.getItemName()).append('*').append(line.getQuantity());
+            if (line.hasExtraCheese()) sb.append("+cheese");
+            if (line.hasSauce()) sb.append("+sauce");
+        }
+        sb.append('|').append(payment);
+        if (orderId > 0) {
+            sb.append('|').append(orderId);
+        }
+        return sb.toString();
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public String getOrderType() {
+        return orderType;
+    }
+
+    public List<Line> getLines() {
+        return lines;
+    }
+
+    public String getPayment() {
+        return payment;
+    }
+
+    // 0 when the shard should allocate the ID itself
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public static class Line {
+        private final String itemName;
+        private final int quantity;
+        private final boolean extraCheese;
+        private final boolean sauce;
+
+        public Line(String itemName, int quantity, boolean extraCheese, boolean sauce) {
+            this.itemName = itemName;
+            this.quantity = quantity;
+            this.extraCheese = extraCheese;
+            this.sauce = sauce;
+        }
+
+        public String getItemName() {
+            return itemName;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public boolean hasExtraCheese() {
+            return extraCheese;
+        }
+
+        public boolean hasSauce() {
+            return sauce;
+        }
+    }
+}
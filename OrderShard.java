@@ -0,0 +1,10 @@
+/**
+ * One partition of a ShardedRuntime: takes a scripted order, runs it to completion
+ * and reports the result. BranchShard runs in this JVM, RemoteShard in another.
+ */
+public interface OrderShard {
+    String getId();
+
+    // The order as it ended up (paid, see OrderStatus.isPaid, or CANCELLED); throws IllegalArgumentException for a bad script
+    OrderSnapshot process(OrderScript script);
+}
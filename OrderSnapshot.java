@@ -0,0 +1,56 @@
+import java.util.*;
+
+/**
+ * Read-only copy of an order as decoded by OrderCodec on the receiving side
+ * (kitchen display, billing, analytics). It carries the order's data but none
+ * of the handlers an OrderTemplate needs to process it.
+ */
+public final class OrderSnapshot {
+    private final int orderId;
+    private final OrderType orderType;
+    private final int tableNumber;
+    private final String customerName;
+    private final OrderStatus status;
+    private final List<OrderItem> items;
+
+    public OrderSnapshot(int orderId, OrderType orderType, int tableNumber, String customerName,
+                         OrderStatus status, List<OrderItem> items) {
+        this.orderId = orderId;
+        this.orderType = orderType;
+        this.tableNumber = tableNumber;
+        this.customerName = customerName;
+        this.status = status;
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+    }
+
+    public static OrderSnapshot of(OrderTemplate order) {
+        List<OrderItem> items = order.getItems();
+        return new OrderSnapshot(order.getOrderId(), order.getOrderType(), order.getTableNumber(),
+            order.getCustomerName(), order.getStatus(), items);
+    }
+
+    public int getOrderId() {
+        return orderId;
+    }
+
+    public OrderType getOrderType() {
+        return orderType;
+    }
+
+    // 0 for orders that are not seated at a table
+    public int getTableNumber() {
+        return tableNumber;
+    }
+
+    public String getCustomerName() {
+        return customerName;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public List<OrderItem> getItems() {
+        return items;
+    }
+}
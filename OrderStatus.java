@@ -1,3 +1,11 @@
+/**
+ * Order lifecycle: NEW -> PLACED (kitchen and staff notified) -> BILLED (paid, bill
+ * printed) -> PREPARING -> READY -> SERVED (dine-in) -> COMPLETED, or CANCELLED when
+ * payment fails. The kitchen may start before billing; the status catches up with it
+ * when the order is billed (see OrderTemplate).
+ *
+ * BILLED is declared last because OrderCodec sends statuses by ordinal.
+ */
 public enum OrderStatus { 
     NEW, 
     PLACED, 
@@ -5,6 +13,11 @@ public enum OrderStatus {
     READY, 
     SERVED, 
     COMPLETED, 
-    CANCELLED 
-}
+    CANCELLED,
+    BILLED;
 
+    // True once payment went through, whatever the kitchen and floor have done since
+    public boolean isPaid() {
+        return this == BILLED || this == PREPARING || this == READY || this == SERVED || this == COMPLETED;
+    }
+}
@@ -0,0 +1,8 @@
+/// The four steps of the OrderTemplate.processOrder template, in execution order
+
+public enum OrderStep {
+    NOTIFY,
+    CALCULATE,
+    PAYMENT,
+    PRINT
+}
@@ -0,0 +1,98 @@
+/**
+ * Which orders an observer wants to hear about. Every filter is optional:
+ * order types (any by default), a table range (only dine-in orders seated in the
+ * range match once one is set) and item categories (the order must contain at
+ * least one item in one of them). Instances are immutable; the with* methods
+ * return narrowed copies.
+ */
+public final class OrderSubscription {
+    private static final int ALL_TYPES = (1 << OrderType.values().length) - 1;
+    private static final OrderSubscription ALL = new OrderSubscription(ALL_TYPES, 0, Integer.MAX_VALUE, false, 0);
+
+    private final int typeMask;
+    private final int minTable;
+    private final int maxTable;
+    private final boolean tableFiltered;
+    private final int categoryMask;  // 0 = any category
+
+    private OrderSubscription(int typeMask, int minTable, int maxTable, boolean tableFiltered, int categoryMask) {
+        this.typeMask = typeMask;
+        this.minTable = minTable;
+        this.maxTable = maxTable;
+        this.tableFiltered = tableFiltered;
+        this.categoryMask = categoryMask;
+    }
+
+    public static OrderSubscription all() {
+        return ALL;
+    }
+
+    public static OrderSubscription forTypes(OrderType... types) {
+        if (types == null || types.length == 0) {
+            throw new IllegalArgumentException("At least one order type is required");
+        }
+        int mask = 0;
+        for (OrderType type : types) {
+            mask |= 1 << type.ordinal();
+        }
+        return new OrderSubscription(mask, 0, Integer.MAX_VALUE, false, 0);
+    }
+
+    // Inclusive range; takeaway orders have no table and never match
+    public OrderSubscription withTables(int from, int to) {
+        if (from < 1 || to < from) {
+            throw new IllegalArgumentException("Invalid table range: " + from + "-" + to);
+        }
+        return new OrderSubscription(typeMask, from, to, true, categoryMask);
+    }
+
+    public OrderSubscription withCategories(ItemCategory... categories) {
+        if (categories == null || categories.length == 0) {
+            throw new IllegalArgumentException("At least one category is required");
+        }
+        return new OrderSubscription(typeMask, minTable, maxTable, tableFiltered, ItemCategory.maskOf(categories));
+    }
+
+    // table is 0 for orders without one; orderCategories is the OR of the order's item masks
+    public boolean matches(OrderType type, int table, int orderCategories) {
+        if ((typeMask & (1 << type.ordinal())) == 0) {
+            return false;
+        }
+        if (tableFiltered && (table < minTable || table > maxTable)) {
+            return false;
+        }
+        return categoryMask == 0 || (categoryMask & orderCategories) != 0;
+    }
+
+    public boolean matches(OrderTemplate order) {
+        return matches(order.getOrderType(), order.getTableNumber(), order.getCategoryMask());
+    }
+
+    public boolean isUnfiltered() {
+        return typeMask == ALL_TYPES && !tableFiltered && categoryMask == 0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("OrderSubscription[types=");
+        for (OrderType type : OrderType.values()) {
+            if ((typeMask & (1 << type.ordinal())) != 0) {
+                sb.append(type).append(' ');
+            }
+        }
+        sb.setLength(sb.length() - 1);
+        if (tableFiltered) {
+            sb.append(", tables=").append(minTable).append('-').append(maxTable);
+        }
+        if (categoryMask != 0) {
+            sb.append(", categories=");
+            for (ItemCategory category : ItemCategory.values()) {
+                if ((categoryMask & category.mask()) != 0) {
+                    sb.append(category).append(' ');
+                }
+            }
+            sb.setLength(sb.length() - 1);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -3,16 +3,40 @@ import java.util.*;
 /// Template Method
 public abstract class OrderTemplate {
 
-    protected final int orderId = new Random().nextInt(100) + 1;
-    protected final List<OrderItem> items = new ArrayList<>();
+    protected final int orderId;
+    private final List<OrderItem> items = new ArrayList<>();
     protected PaymentHandler paymentHandler;
     protected OrderNotifier notifier;
     protected OrderCalculator calculator;
-    protected OrderStatus status = OrderStatus.NEW;
+    protected volatile OrderStatus status = OrderStatus.NEW;
     protected PaymentStrategy paymentStrategy;
-    protected String customerName = "Guest";
+    protected volatile String customerName = "Guest";
+    // Pricing is cached per item-list version and calculator configuration; addItem bumps the version
+    private int itemsVersion;
+    private PricedOrder pricedOrder;
+    private int pricedVersion = -1;
+    private OrderCalculator pricedCalculator;
+    private int pricedConfigVersion;
+    // Set once the order is in an OrderRegistry, which then keeps its indexes in step
+    private volatile OrderRegistry registry;
+    // When the order was served, completed or cancelled; 0 while open. Maintained by OrderRegistry
+    volatile long finishedAtMillis;
+    // Kitchen progress, kept apart from status because cooks may start before the order
+    // is billed: 0 = not started, 1 = preparing, 2 = ready. Guarded by this
+    private int kitchenStage;
+    // null = the BillingSystem singleton
+    private volatile BillingSystem billing;
 
     public OrderTemplate(PaymentHandler paymentHandler, OrderNotifier notifier, OrderCalculator calculator) {
+        this(OrderIdAllocator.getInstance().nextId(), paymentHandler, notifier, calculator);
+    }
+
+    // For an ID handed out elsewhere, e.g. by the ShardedRuntime that routed the order here
+    protected OrderTemplate(int orderId, PaymentHandler paymentHandler, OrderNotifier notifier, OrderCalculator calculator) {
+        if (orderId <= 0) {
+            throw new IllegalArgumentException("Order ID must be positive");
+        }
+        this.orderId = orderId;
         this.paymentHandler = paymentHandler;
         this.notifier = notifier;
         this.calculator = calculator;
@@ -20,25 +44,156 @@ public abstract class OrderTemplate {
 
     public int getOrderId() { return orderId; }
     public OrderStatus getStatus() { return status; }
+    public String getCustomerName() { return customerName; }
+    public abstract OrderType getOrderType();
+
+    // 0 for orders that are not seated at a table
+    public int getTableNumber() { return 0; }
+
+    // Every category that appears on the order, OR-ed together
+    public synchronized int getCategoryMask() {
+        int mask = 0;
+        for (OrderItem item : items) {
+            mask |= item.getCategoryMask();
+        }
+        return mask;
+    }
+
+    public synchronized void addItem(OrderItem it) {
+        items.add(it);
+        itemsVersion++;
+    }
+
+    // Copy of the current lines, safe to iterate while items are still being added
+    public synchronized List<OrderItem> getItems() {
+        return new ArrayList<>(items);
+    }
 
-    public void addItem(OrderItem it) { items.add(it); }
+    // Prices the current items once; later calls reuse the result until the items,
+    // the calculator or its discount rules change
+    public synchronized PricedOrder getPricedOrder() {
+        int configVersion = calculator.getConfigVersion();
+        if (pricedOrder == null || pricedVersion != itemsVersion
+            || pricedCalculator != calculator || pricedConfigVersion != configVersion) {
+            pricedOrder = calculator.price(items);
+            pricedVersion = itemsVersion;
+            pricedCalculator = calculator;
+            pricedConfigVersion = configVersion;
+        }
+        return pricedOrder;
+    }
     public void setPaymentStrategy(PaymentStrategy s) { paymentStrategy = s; }
-    public void setCustomerName(String name) { this.customerName = name; }
+    public void setBillingSystem(BillingSystem billing) { this.billing = billing; }
+
+    protected BillingSystem getBillingSystem() {
+        BillingSystem current = billing;
+        return current != null ? current : BillingSystem.getInstance();
+    }
+
+    public synchronized void setCustomerName(String name) {
+        if (registry != null) {
+            registry.moveCustomer(this, name);
+        } else {
+            customerName = name;
+        }
+    }
+
+    public synchronized void setStatus(OrderStatus newStatus) {
+        if (newStatus == null || newStatus == status) return;
+        if (registry != null) {
+            registry.moveStatus(this, newStatus);
+        } else {
+            status = newStatus;
+        }
+    }
+
+    // Moves to next only if the order is still at expected, so a late or duplicate step
+    // never rewinds or overwrites an order that has moved on (e.g. one that was cancelled)
+    synchronized boolean advanceStatus(OrderStatus expected, OrderStatus next) {
+        if (status != expected) return false;
+        setStatus(next);
+        return true;
+    }
+
+    // Kitchen side: a cook started on the order. Shows as PREPARING once it is billed.
+    synchronized void startPreparing() {
+        kitchenStage = Math.max(kitchenStage, 1);
+        advanceStatus(OrderStatus.BILLED, OrderStatus.PREPARING);
+    }
+
+    // Kitchen side: every station finished. Shows as READY once it is billed; returns
+    // true when the status moved now.
+    synchronized boolean finishPreparing() {
+        kitchenStage = 2;
+        return advanceStatus(OrderStatus.BILLED, OrderStatus.READY)
+            || advanceStatus(OrderStatus.PREPARING, OrderStatus.READY);
+    }
+
+    // PRINT step: a paid order enters the kitchen states at whatever stage the kitchen reached
+    private synchronized void markBilled() {
+        OrderStatus next = kitchenStage == 2 ? OrderStatus.READY
+            : kitchenStage == 1 ? OrderStatus.PREPARING : OrderStatus.BILLED;
+        advanceStatus(OrderStatus.PLACED, next);
+    }
+
+    // Hands a finished order over: a takeaway order when it is picked up (READY), a
+    // dine-in order when its table is closed after serving (SERVED). False otherwise.
+    public synchronized boolean complete() {
+        OrderStatus expected = getOrderType() == OrderType.DINE_IN ? OrderStatus.SERVED : OrderStatus.READY;
+        return advanceStatus(expected, OrderStatus.COMPLETED);
+    }
+
+    void attachRegistry(OrderRegistry registry) {
+        this.registry = registry;
+    }
 
     // Template method
     public final void processOrder() {
-        status = OrderStatus.PLACED;
-        System.out.println("\n[Order #" + orderId + "] Placed by " + customerName);
-        notifySystems();
-        calculateTotal();
-        if (!handlePayment()) {
-            status = OrderStatus.CANCELLED;
-            System.out.println("[Order #" + orderId + "] Payment failed -> CANCELLED");
-            return;
-        }
-        printBill();
-        status = OrderStatus.COMPLETED;
-        System.out.println("[Order #" + orderId + "] Completed!");
+        for (OrderStep step : OrderStep.values()) {
+            if (!runStep(step)) return;
+        }
+    }
+
+    // Runs one step of the template; returns false when the order must stop (payment failed).
+    // Package-private so OrderBatchProcessor can schedule the same steps one at a time.
+    final boolean runStep(OrderStep step) {
+        OrderMetrics metrics = OrderMetrics.getInstance();
+        if (!metrics.isEnabled()) {
+            return executeStep(step);
+        }
+        long start = System.nanoTime();
+        try {
+            return executeStep(step);
+        } finally {
+            metrics.recordStep(step, System.nanoTime() - start);
+        }
+    }
+
+    private boolean executeStep(OrderStep step) {
+        switch (step) {
+            case NOTIFY:
+                setStatus(OrderStatus.PLACED);
+                Log.info(() -> "\n[Order #" + orderId + "] Placed by " + customerName);
+                notifySystems();
+                return true;
+            case CALCULATE:
+                calculateTotal();
+                return true;
+            case PAYMENT:
+                if (!handlePayment()) {
+                    setStatus(OrderStatus.CANCELLED);
+                    Log.warn(() -> "[Order #" + orderId + "] Payment failed -> CANCELLED");
+                    return false;
+                }
+                return true;
+            case PRINT:
+                printBill();
+                markBilled();
+                Log.info(() -> "[Order #" + orderId + "] Billed -> " + status);
+                return true;
+            default:
+                throw new IllegalArgumentException("Unknown step: " + step);
+        }
     }
 
     protected abstract void calculateTotal();
@@ -0,0 +1,4 @@
+public enum OrderType {
+    DINE_IN,
+    TAKEAWAY
+}
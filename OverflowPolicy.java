@@ -0,0 +1,8 @@
+/**
+ * What an ObserverMailbox does when a new notification arrives and the mailbox is full
+ */
+public enum OverflowPolicy {
+    BLOCK,     // wait (up to the observer timeout) for space, then drop
+    DROP,      // drop the new notification immediately
+    COALESCE   // merge with a pending notification for the same order, else evict the oldest
+}
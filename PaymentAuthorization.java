@@ -0,0 +1,37 @@
+/**
+ * One payer's request in a gateway batch: who pays (card number or wallet ID),
+ * the credential that proves it (auth code, if the method has one) and how much
+ */
+public final class PaymentAuthorization {
+    private final String paymentMethod;
+    private final String accountId;
+    private final String credential;
+    private final long amountCents;
+
+    public PaymentAuthorization(String paymentMethod, String accountId, String credential, long amountCents) {
+        if (paymentMethod == null || accountId == null || accountId.trim().isEmpty()) {
+            throw new IllegalArgumentException("Payment method and account cannot be null or empty");
+        }
+        this.paymentMethod = paymentMethod;
+        this.accountId = accountId;
+        this.credential = credential;
+        this.amountCents = amountCents;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    // null for methods that have no separate credential
+    public String getCredential() {
+        return credential;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+}
@@ -0,0 +1,11 @@
+/**
+ * Remote payment gateway. One call is one round trip, however many authorizations it
+ * carries, which is what makes batched settlement worthwhile.
+ */
+public interface PaymentGateway {
+    // result[i] tells whether batch[i] was authorized; every entry has the given payment method
+    boolean[] authorize(String paymentMethod, PaymentAuthorization[] batch);
+
+    // Releases an authorization the caller no longer wants (e.g. one that came back after its timeout)
+    void voidAuthorization(PaymentAuthorization authorization);
+}
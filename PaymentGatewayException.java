@@ -0,0 +1,15 @@
+/**
+ * Thrown by a PaymentStrategy when the payment method or its gateway failed and gave
+ * no answer, as opposed to pay() returning false for a customer decline.
+ * PaymentHandler counts it against the method's circuit breaker and retries it;
+ * a decline is final.
+ */
+public class PaymentGatewayException extends RuntimeException {
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
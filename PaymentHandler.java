@@ -2,27 +2,277 @@
 // Payment Strategy Pattern - Improved Version
 // ============================================================================
 
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.*;
+
 /**
  * PaymentHandler - Context in Strategy Pattern
  * Uses PaymentStrategy without knowing concrete implementations
  * Single Responsibility: Coordinate payment processing
  * Dependency Inversion: Depends on PaymentStrategy abstraction
+ *
+ * Every payment method gets its own PaymentMethodGuard: a circuit breaker so a degraded
+ * method fails fast, retries with jittered exponential backoff, a time limit per call,
+ * optional hedged requests for the slowest percentile, and latency stats.
+ *
+ * Errors (PaymentGatewayException or any other exception from pay), calls over the
+ * time limit and slow calls count against the breaker; errors and timeouts are retried.
+ * A decline is a real answer: it is returned at once and, unless it was slow, tells the
+ * breaker the method is up. A call over the time limit is abandoned, and if it approves
+ * later the approval is reversed unless this payment's idempotency key already covers it.
+ * Hedging sends a second attempt while the first is still running, so it is only used
+ * for strategies that take an idempotency key (it is on by default for those); every
+ * attempt of one payment, retries included, carries the same key.
  */
 public class PaymentHandler {
-    public boolean processPayment(double amount, PaymentStrategy strategy) {
+    private static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    private static final long DEFAULT_OPEN_MILLIS = 30_000;
+    private static final int DEFAULT_MAX_RETRIES = 2;
+    private static final long DEFAULT_BACKOFF_MILLIS = 50;
+    private static final long DEFAULT_CALL_TIMEOUT_MILLIS = 5_000;
+    private static final long DEFAULT_SLOW_CALL_MILLIS = 2_000;
+    private static final double DEFAULT_HEDGE_PERCENTILE = 0.95;
+    private static final int MIN_HEDGE_SAMPLES = 20;
+
+    private final Map<String, PaymentMethodGuard> guards = new ConcurrentHashMap<>();
+    private volatile ExecutorService attemptExecutor;
+
+    public boolean processPayment(long amountCents, PaymentStrategy strategy) {
         if (strategy == null) {
-            System.out.println("[PaymentHandler] Payment strategy is null");
+            Log.warn("[PaymentHandler] Payment strategy is null");
             return false;
         }
-        if (amount <= 0) {
-            System.out.println("[PaymentHandler] Invalid payment amount: " + amount);
+        if (amountCents <= 0) {
+            Log.warn(() -> "[PaymentHandler] Invalid payment amount: " + Money.format(amountCents));
             return false;
         }
-        return strategy.pay(amount);
+
+        PaymentMethodGuard guard = getGuard(strategy);
+        String idempotencyKey = strategy.supportsIdempotencyKey() ? UUID.randomUUID().toString() : null;
+        // Final answer of this payment; abandoned attempts wait on it before reversing a late approval
+        CompletableFuture<Boolean> settled = new CompletableFuture<>();
+        boolean approved = false;
+        try {
+            approved = runAttempts(amountCents, strategy, guard, idempotencyKey, settled);
+            return approved;
+        } finally {
+            settled.complete(approved);
+        }
+    }
+
+    private boolean runAttempts(long amountCents, PaymentStrategy strategy, PaymentMethodGuard guard,
+                                String idempotencyKey, CompletableFuture<Boolean> settled) {
+        CircuitBreaker breaker = guard.getCircuitBreaker();
+        for (int attempt = 0; attempt <= guard.getMaxRetries(); attempt++) {
+            // Back off before asking the breaker, so an interrupt here never strands a half-open trial
+            if (attempt > 0) {
+                guard.getStats().recordRetry();
+                if (!backoff(guard.getBaseBackoffMillis(), attempt)) {
+                    return false;
+                }
+            }
+            if (!breaker.allowRequest()) {
+                guard.getStats().recordRejected();
+                Log.warn(() -> "[PaymentHandler] " + strategy.getPaymentMethodName()
+                    + " circuit is open -> failing fast");
+                return false;
+            }
+            long start = System.nanoTime();
+            PaymentOutcome outcome = attemptPayment(amountCents, strategy, guard, idempotencyKey, settled);
+            boolean slow = System.nanoTime() - start > TimeUnit.MILLISECONDS.toNanos(guard.getSlowCallMillis());
+            switch (outcome) {
+                case APPROVED:
+                case DECLINED:
+                    if (slow) {
+                        guard.getStats().recordSlowCall();
+                        breaker.recordFailure();
+                    } else {
+                        breaker.recordSuccess();
+                    }
+                    if (outcome == PaymentOutcome.DECLINED) {
+                        Log.info(() -> "[PaymentHandler] " + strategy.getPaymentMethodName() + " declined");
+                    }
+                    return outcome.isApproved();
+                case ERROR:
+                    breaker.recordFailure();
+                    break;
+                default:
+                    if (Thread.currentThread().isInterrupted()) {
+                        // The caller gave up: no answer either way
+                        breaker.releaseTrial();
+                        return false;
+                    }
+                    guard.getStats().recordTimeout();
+                    breaker.recordFailure();
+                    Log.warn(() -> "[PaymentHandler] " + strategy.getPaymentMethodName() + " timed out after "
+                        + guard.getCallTimeoutMillis() + "ms");
+                    break;
+            }
+        }
+        return false;
     }
 
     public String getPaymentMethodName(PaymentStrategy strategy) {
         return strategy != null ? strategy.getPaymentMethodName() : "Unknown";
     }
-}
 
+    // ===== Per-method configuration and monitoring =====
+
+    public PaymentMethodGuard getGuard(String paymentMethodName) {
+        return guards.computeIfAbsent(paymentMethodName, m -> newGuard());
+    }
+
+    // Methods that take idempotency keys start with hedging on
+    private PaymentMethodGuard getGuard(PaymentStrategy strategy) {
+        return guards.computeIfAbsent(strategy.getPaymentMethodName(), m -> {
+            PaymentMethodGuard guard = newGuard();
+            if (strategy.supportsIdempotencyKey()) {
+                guard.setHedging(true, DEFAULT_HEDGE_PERCENTILE);
+            }
+            return guard;
+        });
+    }
+
+    private static PaymentMethodGuard newGuard() {
+        return new PaymentMethodGuard(new CircuitBreaker(DEFAULT_FAILURE_THRESHOLD, DEFAULT_OPEN_MILLIS),
+            DEFAULT_MAX_RETRIES, DEFAULT_BACKOFF_MILLIS, DEFAULT_CALL_TIMEOUT_MILLIS, DEFAULT_SLOW_CALL_MILLIS);
+    }
+
+    public CircuitBreaker.State getCircuitState(String paymentMethodName) {
+        return getGuard(paymentMethodName).getCircuitBreaker().getState();
+    }
+
+    public PaymentMethodStats getStats(String paymentMethodName) {
+        return getGuard(paymentMethodName).getStats();
+    }
+
+    // ===== Attempts =====
+
+    // TIMED_OUT when no attempt answered within the call timeout, or the caller was interrupted
+    private PaymentOutcome attemptPayment(long amountCents, PaymentStrategy strategy, PaymentMethodGuard guard,
+                                          String idempotencyKey, CompletableFuture<Boolean> settled) {
+        PaymentMethodStats stats = guard.getStats();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(guard.getCallTimeoutMillis());
+        ExecutorService executor = getAttemptExecutor();
+        CompletableFuture<PaymentOutcome> first = CompletableFuture.supplyAsync(
+            () -> timedPay(amountCents, strategy, stats, idempotencyKey), executor);
+        CompletableFuture<PaymentOutcome> second = null;
+        CompletableFuture<PaymentOutcome> answer = first;
+        try {
+            if (idempotencyKey != null && guard.isHedging() && stats.getCallCount() >= MIN_HEDGE_SAMPLES) {
+                long hedgeAfterNanos = stats.getPercentileNanos(guard.getHedgePercentile());
+                try {
+                    return first.get(Math.min(hedgeAfterNanos, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    if (deadline - System.nanoTime() > 0) {
+                        stats.recordHedge();
+                        second = CompletableFuture.supplyAsync(
+                            () -> timedPay(amountCents, strategy, stats, idempotencyKey), executor);
+                        answer = firstAnswer(first, second);
+                    }
+                }
+            }
+            return answer.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            abandon(first, amountCents, strategy, idempotencyKey, settled);
+            abandon(second, amountCents, strategy, idempotencyKey, settled);
+            return PaymentOutcome.TIMED_OUT;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandon(first, amountCents, strategy, idempotencyKey, settled);
+            abandon(second, amountCents, strategy, idempotencyKey, settled);
+            return PaymentOutcome.TIMED_OUT;
+        } catch (ExecutionException e) {
+            return PaymentOutcome.ERROR;
+        }
+    }
+
+    // An abandoned attempt that approves later is a charge nobody asked for, unless it is
+    // the same keyed charge the payment finally reported as approved
+    private static void abandon(CompletableFuture<PaymentOutcome> attempt, long amountCents, PaymentStrategy strategy,
+                                String idempotencyKey, CompletableFuture<Boolean> settled) {
+        if (attempt == null) {
+            return;
+        }
+        attempt.thenAcceptBoth(settled, (outcome, approved) -> {
+            if (outcome.isApproved() && (idempotencyKey == null || !approved)) {
+                Log.warn(() -> "[PaymentHandler] " + strategy.getPaymentMethodName() + " approved "
+                    + Money.format(amountCents) + " after its timeout -> reversing");
+                try {
+                    if (!strategy.reverse(amountCents)) {
+                        Log.error(() -> "[PaymentHandler] " + strategy.getPaymentMethodName()
+                            + " cannot reverse a late approval of " + Money.format(amountCents));
+                    }
+                } catch (RuntimeException e) {
+                    Log.error(() -> "[PaymentHandler] Could not reverse late " + strategy.getPaymentMethodName()
+                        + " approval: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    private PaymentOutcome timedPay(long amountCents, PaymentStrategy strategy, PaymentMethodStats stats,
+                                    String idempotencyKey) {
+        long start = System.nanoTime();
+        PaymentOutcome outcome;
+        try {
+            boolean approved = idempotencyKey != null
+                ? strategy.pay(amountCents, idempotencyKey)
+                : strategy.pay(amountCents);
+            outcome = approved ? PaymentOutcome.APPROVED : PaymentOutcome.DECLINED;
+        } catch (RuntimeException e) {
+            Log.error(() -> "[PaymentHandler] " + strategy.getPaymentMethodName() + " error: " + e.getMessage());
+            outcome = PaymentOutcome.ERROR;
+        }
+        long elapsed = System.nanoTime() - start;
+        boolean success = outcome.isApproved();
+        stats.record(elapsed, success);
+        OrderMetrics.getInstance().recordPayment(strategy.getPaymentMethodName(), elapsed, success);
+        return outcome;
+    }
+
+    // The first approval or decline from either attempt; ERROR only if both attempts errored
+    private static CompletableFuture<PaymentOutcome> firstAnswer(CompletableFuture<PaymentOutcome> a,
+                                                                 CompletableFuture<PaymentOutcome> b) {
+        CompletableFuture<PaymentOutcome> result = new CompletableFuture<>();
+        a.thenAccept(outcome -> { if (outcome != PaymentOutcome.ERROR) result.complete(outcome); });
+        b.thenAccept(outcome -> { if (outcome != PaymentOutcome.ERROR) result.complete(outcome); });
+        CompletableFuture.allOf(a, b).whenComplete((v, e) -> result.complete(PaymentOutcome.ERROR));
+        return result;
+    }
+
+    // Full jitter: sleep a random time up to base * 2^(attempt-1)
+    private static boolean backoff(long baseMillis, int attempt) {
+        if (baseMillis == 0) {
+            return true;
+        }
+        long cap = baseMillis << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Runs every attempt, so the order thread can stop waiting at the call timeout
+    private ExecutorService getAttemptExecutor() {
+        ExecutorService executor = attemptExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = attemptExecutor;
+                if (executor == null) {
+                    executor = Executors.newCachedThreadPool(r -> {
+                        Thread t = new Thread(r, "payment-attempt");
+                        t.setDaemon(true);
+                        return t;
+                    });
+                    attemptExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Resilience settings and state for one payment method: its circuit breaker,
+ * retry policy, call time limits, hedging switch and latency stats. Owned by PaymentHandler.
+ */
+public class PaymentMethodGuard {
+    private volatile CircuitBreaker breaker;
+    private final PaymentMethodStats stats = new PaymentMethodStats();
+    private volatile int maxRetries;
+    private volatile long baseBackoffMillis;
+    private volatile boolean hedging;
+    private volatile double hedgePercentile = 0.95;
+    private volatile long callTimeoutMillis;
+    private volatile long slowCallMillis;
+
+    public PaymentMethodGuard(CircuitBreaker breaker, int maxRetries, long baseBackoffMillis,
+                              long callTimeoutMillis, long slowCallMillis) {
+        this.breaker = breaker;
+        setRetryPolicy(maxRetries, baseBackoffMillis);
+        setTimeouts(callTimeoutMillis, slowCallMillis);
+    }
+
+    public void setRetryPolicy(int maxRetries, long baseBackoffMillis) {
+        if (maxRetries < 0 || baseBackoffMillis < 0) {
+            throw new IllegalArgumentException("Retries and backoff cannot be negative");
+        }
+        this.maxRetries = maxRetries;
+        this.baseBackoffMillis = baseBackoffMillis;
+    }
+
+    // An attempt still running after callTimeoutMillis is abandoned and counted as a failure;
+    // one that answers after slowCallMillis keeps its answer but also counts as a failure,
+    // so a gateway that slows down opens the circuit before it starts hanging
+    public void setTimeouts(long callTimeoutMillis, long slowCallMillis) {
+        if (callTimeoutMillis <= 0 || slowCallMillis <= 0 || slowCallMillis > callTimeoutMillis) {
+            throw new IllegalArgumentException("Need 0 < slow call limit <= call timeout");
+        }
+        this.callTimeoutMillis = callTimeoutMillis;
+        this.slowCallMillis = slowCallMillis;
+    }
+
+    // Hedge: if an attempt is slower than this percentile of recent calls, fire a second one.
+    // Only applies to strategies that support idempotency keys; pay() alone could charge twice.
+    public void setHedging(boolean hedging, double percentile) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("Hedge percentile must be between 0 and 1");
+        }
+        this.hedging = hedging;
+        this.hedgePercentile = percentile;
+    }
+
+    public void setCircuitBreaker(CircuitBreaker breaker) {
+        if (breaker == null) {
+            throw new IllegalArgumentException("Circuit breaker cannot be null");
+        }
+        this.breaker = breaker;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return breaker;
+    }
+
+    public PaymentMethodStats getStats() {
+        return stats;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getBaseBackoffMillis() {
+        return baseBackoffMillis;
+    }
+
+    public long getCallTimeoutMillis() {
+        return callTimeoutMillis;
+    }
+
+    public long getSlowCallMillis() {
+        return slowCallMillis;
+    }
+
+    public boolean isHedging() {
+        return hedging;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+}
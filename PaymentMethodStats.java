@@ -0,0 +1,114 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Latency and outcome counters for one payment method.
+ * Keeps a ring of the most recent latencies for percentile estimates (used to decide
+ * when a hedged request is worth sending).
+ */
+public class PaymentMethodStats {
+    private static final int SAMPLES = 256;
+
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejectedByBreaker = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong hedges = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong slowCalls = new AtomicLong();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+    private final AtomicLongArray recent = new AtomicLongArray(SAMPLES);
+    private final AtomicInteger nextSample = new AtomicInteger();
+
+    public void record(long nanos, boolean success) {
+        calls.incrementAndGet();
+        if (!success) {
+            failures.incrementAndGet();
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        recent.set(Math.floorMod(nextSample.getAndIncrement(), SAMPLES), nanos);
+    }
+
+    void recordRejected() {
+        rejectedByBreaker.incrementAndGet();
+    }
+
+    void recordRetry() {
+        retries.incrementAndGet();
+    }
+
+    void recordHedge() {
+        hedges.incrementAndGet();
+    }
+
+    void recordTimeout() {
+        timeouts.incrementAndGet();
+    }
+
+    void recordSlowCall() {
+        slowCalls.incrementAndGet();
+    }
+
+    // Latency at the given percentile (0..1) over the recent samples, 0 when there are none
+    public long getPercentileNanos(double percentile) {
+        int count = (int) Math.min(calls.get(), SAMPLES);
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = new long[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = recent.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.min(count - 1, Math.ceil(percentile * count) - 1);
+        return sorted[Math.max(0, index)];
+    }
+
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedByBreaker.get();
+    }
+
+    public long getRetryCount() {
+        return retries.get();
+    }
+
+    public long getHedgeCount() {
+        return hedges.get();
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.get();
+    }
+
+    public long getSlowCallCount() {
+        return slowCalls.get();
+    }
+
+    public double getAverageMillis() {
+        long count = calls.get();
+        return count == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("calls=%d failures=%d rejected=%d retries=%d hedges=%d timeouts=%d slow=%d"
+                + " avg=%.2fms p95=%.2fms max=%.2fms",
+            getCallCount(), getFailureCount(), getRejectedCount(), getRetryCount(), getHedgeCount(),
+            getTimeoutCount(), getSlowCallCount(),
+            getAverageMillis(), getPercentileNanos(0.95) / 1_000_000.0, getMaxMillis());
+    }
+}
@@ -0,0 +1,13 @@
+/**
+ * How an asynchronous payment ended
+ */
+public enum PaymentOutcome {
+    APPROVED,
+    DECLINED,
+    ERROR,      // the payment method or gateway failed; nothing was authorized
+    TIMED_OUT;  // no answer in time; an approval that arrives later is voided
+
+    public boolean isApproved() {
+        return this == APPROVED;
+    }
+}
@@ -8,6 +8,33 @@
  * Single Responsibility: Define payment algorithm contract
  */
 public interface PaymentStrategy {
-    boolean pay(double amount);
+    // True when approved, false when declined; throws PaymentGatewayException when the
+    // method itself failed and there is no answer
+    boolean pay(long amountCents);
     String getPaymentMethodName();
+
+    // True when the amount may be settled through a PaymentGateway batch instead of pay()
+    default boolean supportsBatchSettlement() {
+        return false;
+    }
+
+    // The gateway request for this payer; required when supportsBatchSettlement() is true
+    default PaymentAuthorization createAuthorization(long amountCents) {
+        throw new UnsupportedOperationException(getPaymentMethodName() + " does not settle in batches");
+    }
+
+    // True when pay(amount, key) is idempotent: repeating a key returns the first answer
+    // without charging again. Only such methods are hedged by PaymentHandler.
+    default boolean supportsIdempotencyKey() {
+        return false;
+    }
+
+    default boolean pay(long amountCents, String idempotencyKey) {
+        throw new UnsupportedOperationException(getPaymentMethodName() + " does not accept idempotency keys");
+    }
+
+    // Undoes a pay() that was approved but is no longer wanted; false if it cannot be undone here
+    default boolean reverse(long amountCents) {
+        return false;
+    }
 }
@@ -0,0 +1,347 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Repeatable micro-benchmarks for the pricing and ordering hot paths.
+ * Each case is warmed up, then measured over several timed iterations; results are
+ * reported as ns/op (mean, stddev, best). Run with an optional name filter:
+ *
+ *   javac -d out *.java && java -cp out PerformanceBenchmark [filter]
+ *
+ * The JMH suite in jmh/ (gradle jmh) builds its inputs from the same fixtures below.
+ */
+public class PerformanceBenchmark {
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURE_ITERATIONS = 10;
+    private static final long TARGET_ITERATION_NANOS = 100_000_000L;
+
+    // Results are folded in here so the JIT cannot drop the measured work
+    private static volatile long sink;
+
+    private final String filter;
+    private final PrintStream report;
+
+    public PerformanceBenchmark(String filter, PrintStream report) {
+        this.filter = filter == null ? "" : filter.toLowerCase();
+        this.report = report;
+    }
+
+    public static void main(String[] args) {
+        new PerformanceBenchmark(args.length > 0 ? args[0] : "", System.out).runAll();
+    }
+
+    public void runAll() {
+        report.printf("%-55s %14s %12s %14s%n", "Benchmark", "ns/op", "+/-", "best ns/op");
+        orderCalculator();
+        decoratorChains();
+        notifier();
+        catalog();
+        billGenerator();
+        billPrinters();
+        codec();
+    }
+
+    // ===== Cases =====
+
+    private void orderCalculator() {
+        for (int lines : new int[] { 1, 10, 100, 1000 }) {
+            for (int discounts : new int[] { 0, 2, 16 }) {
+                OrderCalculator calculator = calculatorWith(discounts);
+                List<OrderItem> items = orderLines(lines);
+                run("OrderCalculator.calculateTotalCents lines=" + lines + " discounts=" + discounts,
+                    () -> calculator.calculateTotalCents(items));
+            }
+        }
+    }
+
+    private void decoratorChains() {
+        for (int depth : new int[] { 1, 4, 16, 64 }) {
+            MenuItem chain = decorate(new PizzaItem("Margherita", 55.0), depth);
+            FrozenMenuItem frozen = FrozenMenuItem.of(chain);
+            run("MenuItemDecorator chain depth=" + depth + " getPrice+getDescription",
+                () -> Double.doubleToRawLongBits(chain.getPrice()) + chain.getDescription().length());
+            run("FrozenMenuItem depth=" + depth + " getPrice+getDescription",
+                () -> Double.doubleToRawLongBits(frozen.getPrice()) + frozen.getDescription().length());
+        }
+        // What building one order line with extras costs: fresh chain + freeze vs shared variant
+        MenuItem base = new PizzaItem("Margherita", 55.0);
+        MenuVariantCache variants = new MenuVariantCache(64);
+        List<MenuModifier> extras = List.of(MenuModifier.EXTRA_CHEESE, MenuModifier.SAUCE);
+        run("new decorator chain cheese+sauce + FrozenMenuItem.of",
+            () -> FrozenMenuItem.of(new SauceDecorator(new ExtraCheeseDecorator(base))).getPriceCents());
+        run("MenuVariantCache.variant cheese+sauce",
+            () -> variants.variant(base, extras).getPriceCents());
+    }
+
+    private void notifier() {
+        OrderTemplate order = new TakeawayOrder(null, null, null);
+        for (int observers : new int[] { 1, 10, 100, 1000 }) {
+            long[] counter = new long[1];
+            OrderNotifier notifier = broadcastNotifier(observers, counter);
+            run("OrderNotifier.notifyObservers observers=" + observers, () -> {
+                notifier.notifyObservers(order);
+                return counter[0];
+            });
+        }
+        OrderTemplate seated = new DineInOrder(null, null, null);
+        for (int observers : new int[] { 100, 1000 }) {
+            long[] counter = new long[1];
+            OrderNotifier notifier = routedNotifier(observers, counter);
+            run("OrderNotifier.notifyObservers routed observers=" + observers, () -> {
+                notifier.notifyObservers(seated);
+                return counter[0];
+            });
+        }
+    }
+
+    // Summing every price in a large catalogue: interface calls over objects vs one long[]
+    private void catalog() {
+        for (int size : new int[] { 1_000, 100_000 }) {
+            List<MenuItem> items = catalogItems(size);
+            MenuCatalog catalog = MenuCatalog.of(items);
+            run("MenuItem objects sum getPrice items=" + size, () -> {
+                long total = 0;
+                for (MenuItem item : items) {
+                    total += Money.fromDouble(item.getPrice());
+                }
+                return total;
+            });
+            run("MenuCatalog sum getPriceCents items=" + size, () -> {
+                long total = 0;
+                for (int id = 0; id < catalog.size(); id++) {
+                    total += catalog.getPriceCents(id);
+                }
+                return total;
+            });
+        }
+    }
+
+    private void billGenerator() {
+        BillGenerator generator = new BillGenerator();
+        OrderCalculator calculator = calculatorWith(2);
+        for (int lines : new int[] { 1, 10, 100 }) {
+            List<OrderItem> items = orderLines(lines);
+            PricedOrder priced = calculator.price(items);
+            run("BillGenerator.generateBill(calculator) lines=" + lines,
+                () -> generator.generateBill(42, items, calculator).getTotalCents());
+            run("BillGenerator.generateBill(priced) lines=" + lines,
+                () -> generator.generateBill(42, priced).getTotalCents());
+        }
+    }
+
+    private void billPrinters() {
+        Bill bill = new BillGenerator().generateBill(42, orderLines(10), calculatorWith(2));
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            ConsoleBillPrinter consolePrinter = new ConsoleBillPrinter();
+            run("ConsoleBillPrinter.print lines=10", () -> {
+                consolePrinter.print(bill);
+                return 1;
+            });
+            BufferedBillPrinter bufferedPrinter = new BufferedBillPrinter(OutputStream.nullOutputStream());
+            run("BufferedBillPrinter.print lines=10", () -> {
+                bufferedPrinter.print(bill);
+                return 1;
+            });
+        } finally {
+            System.setOut(console);
+        }
+    }
+
+    // Sizes are printed next to the timings; correctness lives in OrderCodecCheck. Java
+    // serialization gets the same fields as a boxed graph, since the domain classes
+    // are not Serializable.
+    private void codec() {
+        OrderCodec codec = new OrderCodec();
+        OrderCalculator calculator = calculatorWith(2);
+        for (int lines : new int[] { 1, 10, 100 }) {
+            Bill bill = new BillGenerator().generateBill(42, menuLines(lines), calculator);
+            ByteBuffer encoded = codec.encodeBill(bill);
+            byte[] serialized = javaSerialize(bill);
+            note("OrderCodec size lines=" + lines, encoded.remaining() + " bytes vs Java serialization "
+                + serialized.length + " bytes");
+            run("OrderCodec.encodeBill lines=" + lines, () -> codec.encodeBill(bill).remaining());
+            run("OrderCodec.decodeBill lines=" + lines, () -> codec.decodeBill(encoded.duplicate()).getTotalCents());
+            run("Java serialization write bill lines=" + lines, () -> javaSerialize(bill).length);
+            run("Java serialization read bill lines=" + lines, () -> javaDeserialize(serialized).getTotalCents());
+        }
+    }
+
+    static byte[] javaSerialize(Bill bill) {
+        ArrayList<Object> graph = new ArrayList<>();
+        graph.add(bill.getOrderId());
+        graph.add(new long[] { bill.getSubtotalCents(), bill.getDiscountCents(), bill.getTaxCents(), bill.getTotalCents() });
+        for (OrderItem item : bill.getItems()) {
+            graph.add(new Object[] { item.getMenuItem().getDescription(), item.getQuantity(),
+                item.getMenuItem().getPriceCents(), item.getCategoryMask() });
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(graph);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static Bill javaDeserialize(byte[] data) {
+        List<?> graph;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            graph = (List<?>) in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+        long[] amounts = (long[]) graph.get(1);
+        List<OrderItem> items = new ArrayList<>(graph.size() - 2);
+        for (int i = 2; i < graph.size(); i++) {
+            Object[] line = (Object[]) graph.get(i);
+            items.add(new OrderItem(new RecordedMenuItem((String) line[0], (Long) line[2], (Integer) line[3]),
+                (Integer) line[1]));
+        }
+        return new Bill((Integer) graph.get(0), items, amounts[0], amounts[1], amounts[2], amounts[3]);
+    }
+
+    // ===== Fixtures =====
+
+    static OrderCalculator calculatorWith(int discounts) {
+        OrderCalculator calculator = new OrderCalculator(14.0);
+        if (discounts >= 1) calculator.addDiscountStrategy(new PizzaDiscount());
+        if (discounts >= 2) calculator.addDiscountStrategy(new MeatDiscount());
+        ItemCategory[] categories = ItemCategory.values();
+        for (int i = 2; i < discounts; i++) {
+            calculator.addDiscountStrategy(new CategoryDiscount(1 + i % 5, categories[i % categories.length]) { });
+        }
+        return calculator;
+    }
+
+    static List<OrderItem> orderLines(int lines) {
+        List<OrderItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            MenuItem item = i % 2 == 0
+                ? new PizzaItem("Italian Chicken " + i, 80.0)
+                : new BurgerItem("Veggie Classic " + i, 45.0);
+            items.add(new OrderItem(decorate(item, i % 3), 1 + i % 4));
+        }
+        return items;
+    }
+
+    // Lines drawn from a small menu, so descriptions repeat the way they do on real bills
+    static List<OrderItem> menuLines(int lines) {
+        MenuItem[] menu = {
+            new PizzaItem("Italian Chicken", 80.0), new PizzaItem("Margherita", 55.0),
+            new BurgerItem("Classic Beef", 70.0), new BurgerItem("Veggie Classic", 45.0)
+        };
+        List<OrderItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(new OrderItem(decorate(menu[i % menu.length], i % 3), 1 + i % 4));
+        }
+        return items;
+    }
+
+    static List<MenuItem> catalogItems(int size) {
+        List<MenuItem> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(i % 2 == 0 ? new PizzaItem("Pizza " + i, 50 + i % 40) : new BurgerItem("Burger " + i, 40 + i % 30));
+        }
+        return items;
+    }
+
+    // Observers that each count into counter[0] and see every order
+    static OrderNotifier broadcastNotifier(int observers, long[] counter) {
+        OrderNotifier notifier = new OrderNotifier();
+        for (int i = 0; i < observers; i++) {
+            notifier.registerObserver(o -> counter[0]++);
+        }
+        return notifier;
+    }
+
+    // One table per observer out of 100, so ~1% of subscribers match each order
+    static OrderNotifier routedNotifier(int observers, long[] counter) {
+        OrderNotifier notifier = new OrderNotifier();
+        for (int i = 0; i < observers; i++) {
+            int table = i % 100 + 1;
+            notifier.registerObserver(o -> counter[0]++,
+                OrderSubscription.forTypes(OrderType.DINE_IN).withTables(table, table));
+        }
+        return notifier;
+    }
+
+    static MenuItem decorate(MenuItem item, int depth) {
+        for (int i = 0; i < depth; i++) {
+            item = i % 2 == 0 ? new ExtraCheeseDecorator(item) : new SauceDecorator(item);
+        }
+        return item;
+    }
+
+    // ===== Harness =====
+
+    // Prints an untimed result line when its name passes the filter
+    public void note(String name, String text) {
+        if (name.toLowerCase().contains(filter)) {
+            report.printf("%-55s %s%n", name, text);
+        }
+    }
+
+    public void run(String name, LongSupplier operation) {
+        if (!name.toLowerCase().contains(filter)) {
+            return;
+        }
+        int opsPerIteration = calibrate(operation);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            measure(operation, opsPerIteration);
+        }
+        double[] samples = new double[MEASURE_ITERATIONS];
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            samples[i] = measure(operation, opsPerIteration);
+        }
+
+        double mean = 0;
+        double best = Double.MAX_VALUE;
+        for (double sample : samples) {
+            mean += sample;
+            best = Math.min(best, sample);
+        }
+        mean /= samples.length;
+        double variance = 0;
+        for (double sample : samples) {
+            variance += (sample - mean) * (sample - mean);
+        }
+        double stddev = Math.sqrt(variance / samples.length);
+        report.printf("%-55s %14.1f %12.1f %14.1f%n", name, mean, stddev, best);
+    }
+
+    // Picks an op count so one timed iteration takes roughly TARGET_ITERATION_NANOS
+    private int calibrate(LongSupplier operation) {
+        int ops = 1;
+        while (ops < 1 << 26) {
+            long start = System.nanoTime();
+            long acc = 0;
+            for (int i = 0; i < ops; i++) {
+                acc += operation.getAsLong();
+            }
+            sink += acc;
+            if (System.nanoTime() - start > TARGET_ITERATION_NANOS / 10) {
+                return ops * 10;
+            }
+            ops *= 2;
+        }
+        return ops;
+    }
+
+    // ns per op for one timed iteration
+    private double measure(LongSupplier operation, int ops) {
+        long acc = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ops; i++) {
+            acc += operation.getAsLong();
+        }
+        long elapsed = System.nanoTime() - start;
+        sink += acc;
+        return elapsed / (double) ops;
+    }
+}
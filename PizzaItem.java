@@ -4,10 +4,12 @@ public class PizzaItem implements MenuItem {
     //final : The value cannot be changed once assigned.
     private final String name;
     private final double basePrice;
+    private final int categoryMask;
 
     public PizzaItem(String name, double basePrice) {
         this.name = name;
         this.basePrice = basePrice;
+        this.categoryMask = ItemCategory.PIZZA.mask() | ItemCategory.meatMaskFor(name);
     }
 
     @Override
@@ -19,4 +21,9 @@ public class PizzaItem implements MenuItem {
     public double getPrice() {
         return basePrice;
     }
+
+    @Override
+    public int getCategoryMask() {
+        return categoryMask;
+    }
 }
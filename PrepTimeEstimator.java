@@ -0,0 +1,63 @@
+import java.util.*;
+
+/**
+ * Estimates how long a cook spends on a ticket. Each base item type has a prep
+ * time and each applied modifier (extra cheese, sauce, ...) adds a fixed amount.
+ * Extra units of the same line go into the same oven or grill load, so each adds
+ * only a quarter of the unit time. One cook works a ticket's lines back to back,
+ * so a ticket's estimate is the sum of its lines.
+ */
+public class PrepTimeEstimator {
+    private final Map<Class<? extends MenuItem>, Long> baseMillis = new LinkedHashMap<>();
+    private final long defaultMillis;
+    private final long modifierMillis;
+
+    public PrepTimeEstimator(long defaultMillis, long modifierMillis) {
+        if (defaultMillis <= 0 || modifierMillis < 0) {
+            throw new IllegalArgumentException("Prep times must be positive");
+        }
+        this.defaultMillis = defaultMillis;
+        this.modifierMillis = modifierMillis;
+    }
+
+    // Rough line timings for the items on our menus
+    public static PrepTimeEstimator standard() {
+        PrepTimeEstimator estimator = new PrepTimeEstimator(4 * 60_000L, 20_000L);
+        estimator.setPrepTime(PizzaItem.class, 8 * 60_000L);
+        estimator.setPrepTime(BurgerItem.class, 5 * 60_000L);
+        return estimator;
+    }
+
+    public synchronized void setPrepTime(Class<? extends MenuItem> itemType, long millis) {
+        if (itemType == null || millis <= 0) {
+            throw new IllegalArgumentException("Item type cannot be null and prep time must be positive");
+        }
+        baseMillis.put(itemType, millis);
+    }
+
+    public synchronized long estimateMillis(MenuItem item) {
+        FrozenMenuItem frozen = FrozenMenuItem.of(item);
+        MenuItem base = frozen.getBaseItem();
+        long millis = defaultMillis;
+        for (Map.Entry<Class<? extends MenuItem>, Long> entry : baseMillis.entrySet()) {
+            if (entry.getKey().isInstance(base)) {
+                millis = entry.getValue();
+                break;
+            }
+        }
+        return millis + modifierMillis * frozen.getModifiers().size();
+    }
+
+    public long estimateMillis(OrderItem line) {
+        long unit = estimateMillis(line.getMenuItem());
+        return unit + (line.getQuantity() - 1) * unit / 4;
+    }
+
+    public long estimateMillis(KitchenTicket ticket) {
+        long millis = 0;
+        for (OrderItem line : ticket.getLines()) {
+            millis += estimateMillis(line);
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,41 @@
+import java.util.*;
+
+/**
+ * Immutable pricing result for one version of an order's item list (amounts in cents).
+ * Computed once by OrderCalculator.price and reused by payment and billing.
+ */
+public final class PricedOrder {
+    private final List<OrderItem> items;
+    private final long subtotalCents;
+    private final long discountCents;
+    private final long taxCents;
+    private final long totalCents;
+
+    public PricedOrder(List<OrderItem> items, long subtotalCents, long discountCents, long taxCents, long totalCents) {
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+        this.subtotalCents = subtotalCents;
+        this.discountCents = discountCents;
+        this.taxCents = taxCents;
+        this.totalCents = totalCents;
+    }
+
+    public List<OrderItem> getItems() {
+        return items;
+    }
+
+    public long getSubtotalCents() {
+        return subtotalCents;
+    }
+
+    public long getDiscountCents() {
+        return discountCents;
+    }
+
+    public long getTaxCents() {
+        return taxCents;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+}
@@ -0,0 +1,30 @@
+/**
+ * Plain MenuItem restored from stored or transmitted data: the frozen description,
+ * unit price and categories, with no decorator chain or item type behind it
+ */
+public final class RecordedMenuItem implements MenuItem {
+    private final String description;
+    private final double price;
+    private final int categoryMask;
+
+    public RecordedMenuItem(String description, long priceCents, int categoryMask) {
+        this.description = description;
+        this.price = Money.toDouble(priceCents);
+        this.categoryMask = categoryMask;
+    }
+
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    @Override
+    public double getPrice() {
+        return price;
+    }
+
+    @Override
+    public int getCategoryMask() {
+        return categoryMask;
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Client side of ShardServer: an OrderShard whose orders run in another JVM.
+ * Keeps up to `maxIdleConnections` open connections for reuse; each call borrows
+ * one, so concurrent callers never interleave on a socket.
+ *
+ * Every reply must arrive within `readTimeoutMillis`. A shard that accepts a request
+ * and then hangs fails the call with an UncheckedIOException instead of blocking the
+ * caller, and the half-read connection is discarded rather than reused.
+ */
+public class RemoteShard implements OrderShard, Closeable {
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+    private static final int DEFAULT_READ_TIMEOUT_MILLIS = 10_000;
+
+    private final String id;
+    private final InetSocketAddress address;
+    private final BlockingQueue<Connection> idle;
+    private final int readTimeoutMillis;
+    private volatile boolean closed;
+
+    public RemoteShard(String id, String host, int port, int maxIdleConnections) {
+        this(id, host, port, maxIdleConnections, DEFAULT_READ_TIMEOUT_MILLIS);
+    }
+
+    public RemoteShard(String id, String host, int port, int maxIdleConnections, int readTimeoutMillis) {
+        if (id == null || host == null) {
+            throw new IllegalArgumentException("Shard id and host cannot be null");
+        }
+        if (readTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("Read timeout must be positive");
+        }
+        this.id = id;
+        this.address = new InetSocketAddress(host, port);
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxIdleConnections));
+        this.readTimeoutMillis = readTimeoutMillis;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public OrderSnapshot process(OrderScript script) {
+        if (closed) {
+            throw new IllegalStateException("Remote shard " + id + " is closed");
+        }
+        Connection connection = idle.poll();
+        try {
+            if (connection == null) {
+                connection = new Connection(address, readTimeoutMillis);
+            }
+            OrderSnapshot result = connection.call(script.toLine());
+            if (closed || !idle.offer(connection)) {
+                connection.close();
+            }
+            return result;
+        } catch (IOException e) {
+            // Includes SocketTimeoutException: the reply may still be in flight, so the
+            // stream is out of step and the connection cannot be reused
+            if (connection != null) {
+                connection.close();
+            }
+            throw new UncheckedIOException("Remote shard " + id + " at " + address + " failed", e);
+        } catch (RuntimeException e) {
+            // The exchange completed, so the connection is still in step
+            if (connection != null && (closed || !idle.offer(connection))) {
+                connection.close();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    private static final class Connection {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        final OrderCodec codec = new OrderCodec();
+
+        Connection(InetSocketAddress address, int readTimeoutMillis) throws IOException {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(readTimeoutMillis);
+            socket.connect(address, CONNECT_TIMEOUT_MILLIS);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        OrderSnapshot call(String scriptLine) throws IOException {
+            out.writeUTF(scriptLine);
+            out.flush();
+            byte status = in.readByte();
+            if (status == ShardServer.OK) {
+                byte[] message = new byte[in.readInt()];
+                in.readFully(message);
+                return codec.decodeOrder(ByteBuffer.wrap(message));
+            }
+            String error = in.readUTF();
+            if (status == ShardServer.BAD_REQUEST) {
+                throw new IllegalArgumentException(error);
+            }
+            throw new IllegalStateException("Remote order failed: " + error);
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+    }
+}
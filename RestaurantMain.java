@@ -1,8 +1,27 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+
 public class RestaurantMain {
-    public static void main(String[] args) {
+    // Optional argument: a menu file for FileMenuFactory instead of the built-in menus
+    public static void main(String[] args) throws IOException {
         UIController ui = new UIController();
 
         ui.showHeader("Restaurant Ordering System");
+        MenuFactory factory = args.length > 0
+            ? new FileMenuFactory(Paths.get(args[0]))
+            : selectBuiltInFactory(ui);
+
+        // Create the menu
+        Menu menu = factory.createMenu();
+
+        // Create controller and start
+        MainController controller = new MainController(menu, ui);
+        controller.runInteractive();
+
+        ui.showFooter("Thank you for using our system!");
+    }
+
+    private static MenuFactory selectBuiltInFactory(UIController ui) {
         int choice = ui.selectMenuType();
 
         // Create menu factory based on user choice
@@ -21,14 +40,6 @@ public class RestaurantMain {
                 ui.showMessage("Invalid choice! Defaulting to Veg Menu.");
                 factory = new VegMenuFactory();
         }
-
-        // Create the menu
-        Menu menu = factory.createMenu();
-
-        // Create controller and start
-        MainController controller = new MainController(menu, ui);
-        controller.runInteractive();
-
-        ui.showFooter("Thank you for using our system!");
+        return factory;
     }
 }
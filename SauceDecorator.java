@@ -10,6 +10,11 @@ public class SauceDecorator extends MenuItemDecorator {
         return wrapped.getDescription() + " + sauce";
     }
 
+    @Override
+    public String getModifierName() {
+        return "sauce";
+    }
+
     @Override
     public double getPrice() {
         return wrapped.getPrice() + extraPrice;
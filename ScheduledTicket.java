@@ -0,0 +1,77 @@
+/**
+ * A KitchenTicket as seen by a KitchenScheduler: when it arrived, how long it should
+ * take, when it was promised, and (once a cook picks it up) who cooks it and when
+ * it will be ready. Start and ready times are written under the scheduler's lock.
+ */
+public class ScheduledTicket {
+    private final KitchenTicket ticket;
+    private final long sequence;
+    private final long arrivalMillis;
+    private final long prepMillis;
+    private final long promisedReadyMillis;
+    private final long priorityKey;
+    private volatile int cook = -1;
+    private volatile long startMillis = -1;
+    private volatile long readyMillis = -1;
+
+    ScheduledTicket(KitchenTicket ticket, long sequence, long arrivalMillis, long prepMillis,
+                    long promisedReadyMillis, long priorityKey) {
+        this.ticket = ticket;
+        this.sequence = sequence;
+        this.arrivalMillis = arrivalMillis;
+        this.prepMillis = prepMillis;
+        this.promisedReadyMillis = promisedReadyMillis;
+        this.priorityKey = priorityKey;
+    }
+
+    void start(int cook, long startMillis) {
+        this.cook = cook;
+        this.startMillis = startMillis;
+        this.readyMillis = startMillis + prepMillis;
+    }
+
+    public KitchenTicket getTicket() {
+        return ticket;
+    }
+
+    public int getOrderId() {
+        return ticket.getOrder().getOrderId();
+    }
+
+    public long getArrivalMillis() {
+        return arrivalMillis;
+    }
+
+    public long getPrepMillis() {
+        return prepMillis;
+    }
+
+    public long getPromisedReadyMillis() {
+        return promisedReadyMillis;
+    }
+
+    // -1 until a cook has picked the ticket up
+    public int getCook() {
+        return cook;
+    }
+
+    public long getStartMillis() {
+        return startMillis;
+    }
+
+    public long getReadyMillis() {
+        return readyMillis;
+    }
+
+    public boolean isStarted() {
+        return startMillis >= 0;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    long getPriorityKey() {
+        return priorityKey;
+    }
+}
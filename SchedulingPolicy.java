@@ -0,0 +1,11 @@
+/**
+ * Order in which a KitchenScheduler hands queued tickets to its cooks.
+ * EARLIEST_DEADLINE is the default: across the replayed rushes in KitchenRushCheck it
+ * gives a lower average wait and a lower p99 wait than FIFO.
+ */
+public enum SchedulingPolicy {
+    FIFO,              // strictly by arrival, like Kitchen.prepareNext
+    EARLIEST_DEADLINE; // by promised-ready time, with aging and a queue-wait bound so long tickets are not starved
+
+    public static final SchedulingPolicy DEFAULT = EARLIEST_DEADLINE;
+}
@@ -0,0 +1,93 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Collects authorizations for one payment method and sends them to the gateway in
+ * batches: a batch goes out when it is full or when the batch window expires,
+ * whichever comes first. Each entry carries its own payer's account and credential.
+ */
+public class SettlementBatcher {
+    private final String paymentMethod;
+    private final PaymentGateway gateway;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final int maxBatchSize;
+    private final long batchWindowMillis;
+    private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final Object windowLock = new Object();
+    private boolean windowOpen;
+
+    public SettlementBatcher(String paymentMethod, PaymentGateway gateway, Executor executor,
+                             ScheduledExecutorService scheduler, int maxBatchSize, long batchWindowMillis) {
+        if (maxBatchSize <= 0 || batchWindowMillis < 0) {
+            throw new IllegalArgumentException("Batch size must be positive and window not negative");
+        }
+        this.paymentMethod = paymentMethod;
+        this.gateway = gateway;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.maxBatchSize = maxBatchSize;
+        this.batchWindowMillis = batchWindowMillis;
+    }
+
+    public CompletableFuture<Boolean> submit(PaymentAuthorization authorization) {
+        if (authorization == null || !paymentMethod.equals(authorization.getPaymentMethod())) {
+            throw new IllegalArgumentException("Authorization must be for " + paymentMethod);
+        }
+        Pending pending = new Pending(authorization);
+        queue.add(pending);
+        synchronized (windowLock) {
+            if (!windowOpen) {
+                windowOpen = true;
+                scheduler.schedule(this::closeWindow, batchWindowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (queue.size() >= maxBatchSize) {
+            executor.execute(this::sendBatch);
+        }
+        return pending.result;
+    }
+
+    private void closeWindow() {
+        synchronized (windowLock) {
+            windowOpen = false;
+        }
+        int batches = (queue.size() + maxBatchSize - 1) / maxBatchSize;
+        for (int i = 0; i < batches; i++) {
+            executor.execute(this::sendBatch);
+        }
+    }
+
+    private void sendBatch() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        Pending next;
+        while (batch.size() < maxBatchSize && (next = queue.poll()) != null) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) return;
+
+        PaymentAuthorization[] authorizations = new PaymentAuthorization[batch.size()];
+        for (int i = 0; i < authorizations.length; i++) {
+            authorizations[i] = batch.get(i).authorization;
+        }
+        try {
+            boolean[] results = gateway.authorize(paymentMethod, authorizations);
+            for (int i = 0; i < authorizations.length; i++) {
+                batch.get(i).result.complete(results != null && i < results.length && results[i]);
+            }
+        } catch (RuntimeException e) {
+            for (Pending pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Pending {
+        final PaymentAuthorization authorization;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Pending(PaymentAuthorization authorization) {
+            this.authorization = authorization;
+        }
+    }
+}
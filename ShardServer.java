@@ -0,0 +1,106 @@
+import java.io.*;
+import java.net.*;
+import java.nio.ByteBuffer;
+import java.util.concurrent.*;
+
+/**
+ * Serves one OrderShard to other JVMs over a loopback TCP socket.
+ *
+ * Each connection carries a sequence of request/response pairs:
+ *   request:  writeUTF(OrderScript line)
+ *   response: byte OK, int length, OrderCodec ORDER message
+ *          or byte BAD_REQUEST / FAILED, writeUTF(message)
+ * Connections are served concurrently, one worker thread each.
+ */
+public class ShardServer implements Closeable {
+    static final byte OK = 0;
+    static final byte BAD_REQUEST = 1;
+    static final byte FAILED = 2;
+
+    private final OrderShard shard;
+    private final ServerSocket serverSocket;
+    private final ExecutorService workers;
+    private final Thread acceptor;
+    private volatile boolean closed;
+
+    // Port 0 picks a free port; see getPort()
+    public ShardServer(OrderShard shard, int port) throws IOException {
+        if (shard == null) {
+            throw new IllegalArgumentException("Shard cannot be null");
+        }
+        this.shard = shard;
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        this.workers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "shard-" + shard.getId() + "-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.acceptor = new Thread(this::acceptLoop, "shard-" + shard.getId() + "-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        Log.info(() -> "[ShardServer] " + shard.getId() + " listening on port " + getPort());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    // Blocks until the server is closed
+    public void awaitClose() throws InterruptedException {
+        acceptor.join();
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        workers.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                workers.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!closed) {
+                    Log.error(() -> "[ShardServer] " + shard.getId() + " accept failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        OrderCodec codec = new OrderCodec();
+        try (socket;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            while (true) {
+                String line;
+                try {
+                    line = in.readUTF();
+                } catch (EOFException e) {
+                    return;
+                }
+                try {
+                    ByteBuffer message = codec.encodeOrder(shard.process(OrderScript.parse(line)));
+                    out.writeByte(OK);
+                    out.writeInt(message.remaining());
+                    out.write(message.array(), message.arrayOffset() + message.position(), message.remaining());
+                } catch (IllegalArgumentException e) {
+                    out.writeByte(BAD_REQUEST);
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                } catch (RuntimeException e) {
+                    out.writeByte(FAILED);
+                    out.writeUTF(String.valueOf(e.getMessage()));
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                Log.warn(() -> "[ShardServer] " + shard.getId() + " connection dropped: " + e.getMessage());
+            }
+        }
+    }
+}
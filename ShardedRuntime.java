@@ -0,0 +1,246 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Multi-branch runtime: orders are partitioned across OrderShards by consistent
+ * hashing of their branch id (or, without one, of their order ID), and each shard
+ * processes its orders with its own notifier, kitchens, calculator and billing.
+ * Shards may be BranchShards in this JVM or RemoteShards served by other JVMs,
+ * so the same routing runs in-process or scaled out over localhost sockets.
+ * Every shard JVM allocates order IDs from its own OrderIdAllocator partition
+ * (--id-partition, partition 0 being this router), so IDs never collide across shards.
+ */
+public class ShardedRuntime implements Closeable {
+    private final ConsistentHashRing<OrderShard> ring = new ConsistentHashRing<>(128);
+    private final List<OrderShard> shards = new CopyOnWriteArrayList<>();
+    private final Map<String, LongAdder> routed = new ConcurrentHashMap<>();
+
+    public void addShard(OrderShard shard) {
+        ring.add(shard.getId(), shard);
+        shards.add(shard);
+    }
+
+    public void removeShard(String shardId) {
+        ring.remove(shardId);
+        shards.removeIf(shard -> shard.getId().equals(shardId));
+    }
+
+    // All orders of one branch land on the same shard while the shard set is unchanged
+    public OrderShard shardFor(String branchId) {
+        return ring.get(branchId);
+    }
+
+    public OrderSnapshot process(String branchId, OrderScript script) {
+        OrderShard shard = shardFor(branchId);
+        routed.computeIfAbsent(shard.getId(), k -> new LongAdder()).increment();
+        return shard.process(script);
+    }
+
+    // Orders without a branch get their ID here and are spread by it; the shard keeps that ID
+    public OrderSnapshot process(OrderScript script) {
+        int orderId = script.getOrderId() > 0 ? script.getOrderId() : OrderIdAllocator.getInstance().nextId();
+        return process("order-" + orderId, script.withOrderId(orderId));
+    }
+
+    public List<OrderShard> getShards() {
+        return Collections.unmodifiableList(shards);
+    }
+
+    // Orders routed to each shard so far, by shard id
+    public Map<String, Long> getRoutedCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (OrderShard shard : shards) {
+            LongAdder adder = routed.get(shard.getId());
+            counts.put(shard.getId(), adder != null ? adder.sum() : 0L);
+        }
+        return counts;
+    }
+
+    // Closed loop: `concurrency` workers each submit the next (branch, script) pair as soon
+    // as the previous one returns
+    public BatchReport runClosedLoop(List<String> branches, List<OrderScript> scripts, int totalOrders, int concurrency) {
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder completed = new LongAdder();
+        LongAdder cancelled = new LongAdder();
+        LongAdder failed = new LongAdder();
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long start = System.nanoTime();
+        List<Future<?>> running = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            running.add(workers.submit(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < totalOrders) {
+                    long orderStart = System.nanoTime();
+                    try {
+                        OrderSnapshot result = process(branches.get(i % branches.size()), scripts.get(i % scripts.size()));
+                        (result.getStatus().isPaid() ? completed : cancelled).increment();
+                    } catch (RuntimeException e) {
+                        failed.increment();
+                    }
+                    latency.record(System.nanoTime() - orderStart);
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Shard worker failed", e.getCause());
+        } finally {
+            workers.shutdown();
+        }
+        return new BatchReport("sharded x" + shards.size() + " closed loop x" + concurrency, completed.intValue(),
+            cancelled.intValue(), failed.intValue(), System.nanoTime() - start, latency);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (OrderShard shard : shards) {
+            if (shard instanceof Closeable) {
+                ((Closeable) shard).close();
+            }
+        }
+    }
+
+    /**
+     * Usage: java ShardedRuntime --mode local  [--shards N] [load options]
+     *        java ShardedRuntime --mode fork   [--shards N] [load options]
+     *        java ShardedRuntime --mode client --endpoints host:port,host:port [load options]
+     *        java ShardedRuntime --mode serve  [--id shard-1] [--port P] [--id-partition P]
+     * Load options: [--orders N] [--concurrency C] [--branches B] [--seed S]
+     * Remote options (fork, client): [--read-timeout-ms M] per-reply limit, default 10000
+     * Common options: [--menu-file file] [--log off|error|warn|info|debug]
+     * local runs every shard in this JVM; fork starts one `serve` JVM per shard on this box
+     * and drives them over loopback sockets; client drives servers started separately.
+     * A server allocates order IDs from OrderIdAllocator partition --id-partition, by default
+     * the number at the end of its --id (shard-3 -> 3); give every server a different one.
+     */
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        String mode = options.getOrDefault("mode", "local");
+        String logLevel = options.getOrDefault("log", "off");
+        Log.setLevel(LogLevel.valueOf(logLevel.toUpperCase()));
+        Menu menu = options.containsKey("menu-file")
+            ? new FileMenuFactory(Paths.get(options.get("menu-file"))).createMenu()
+            : new NonVegMenuFactory().createMenu();
+
+        if (mode.equals("serve")) {
+            String id = options.getOrDefault("id", "shard-1");
+            OrderIdAllocator.usePartition(Integer.parseInt(options.getOrDefault("id-partition", defaultPartition(id))));
+            ShardServer server = new ShardServer(newBranchShard(id, menu), Integer.parseInt(options.getOrDefault("port", "0")));
+            // The forking parent reads this line to find the port
+            System.out.println("PORT " + server.getPort());
+            System.out.flush();
+            server.awaitClose();
+            return;
+        }
+
+        int shardCount = Integer.parseInt(options.getOrDefault("shards", "4"));
+        int readTimeoutMillis = Integer.parseInt(options.getOrDefault("read-timeout-ms", "10000"));
+        List<Process> children = new ArrayList<>();
+        ShardedRuntime runtime = new ShardedRuntime();
+        try {
+            switch (mode) {
+                case "local":
+                    for (int i = 1; i <= shardCount; i++) {
+                        runtime.addShard(newBranchShard("shard-" + i, menu));
+                    }
+                    break;
+                case "fork":
+                    for (int i = 1; i <= shardCount; i++) {
+                        String id = "shard-" + i;
+                        Process child = forkServer(id, i, options.get("menu-file"), logLevel);
+                        children.add(child);
+                        runtime.addShard(new RemoteShard(id, "127.0.0.1", readPort(child), 64, readTimeoutMillis));
+                    }
+                    break;
+                case "client":
+                    int n = 0;
+                    for (String endpoint : options.getOrDefault("endpoints", "").split(",")) {
+                        String[] hostPort = endpoint.trim().split(":");
+                        runtime.addShard(new RemoteShard("shard-" + (++n), hostPort[0], Integer.parseInt(hostPort[1]), 64,
+                            readTimeoutMillis));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown mode: " + mode);
+            }
+
+            Random random = new Random(Long.parseLong(options.getOrDefault("seed", "42")));
+            List<OrderScript> scripts = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                scripts.add(OrderScript.random(menu, random));
+            }
+            List<String> branches = new ArrayList<>();
+            int branchCount = Integer.parseInt(options.getOrDefault("branches", "64"));
+            for (int i = 1; i <= branchCount; i++) {
+                branches.add("branch-" + i);
+            }
+            int orders = Integer.parseInt(options.getOrDefault("orders", "20000"));
+            int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+
+            BatchReport report = runtime.runClosedLoop(branches, scripts, orders, concurrency);
+            System.out.print(report);
+            System.out.println("  routed: " + runtime.getRoutedCounts());
+        } finally {
+            runtime.close();
+            for (Process child : children) {
+                child.destroy();
+            }
+        }
+    }
+
+    private static BranchShard newBranchShard(String id, Menu menu) {
+        // Bills are rendered but not written anywhere; point this at a BillJournal to keep them
+        return new BranchShard(id, menu, new BufferedBillPrinter(OutputStream.nullOutputStream()));
+    }
+
+    // "shard-3" -> "3"; ids without a trailing number get partition 1
+    private static String defaultPartition(String shardId) {
+        Matcher digits = Pattern.compile("(\\d+)$").matcher(shardId);
+        return digits.find() ? digits.group(1) : "1";
+    }
+
+    private static Process forkServer(String id, int partition, String menuFile, String logLevel) throws IOException {
+        List<String> command = new ArrayList<>(List.of(
+            Paths.get(System.getProperty("java.home"), "bin", "java").toString(),
+            "-cp", System.getProperty("java.class.path"),
+            "ShardedRuntime", "--mode", "serve", "--id", id, "--port", "0", "--id-partition", String.valueOf(partition),
+            "--log", logLevel));
+        if (menuFile != null) {
+            command.add("--menu-file");
+            command.add(menuFile);
+        }
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+
+    private static int readPort(Process child) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(child.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith("PORT ")) {
+                int port = Integer.parseInt(line.substring(5).trim());
+                // Keep forwarding the child's log so it never blocks on a full pipe
+                Thread forwarder = new Thread(() -> reader.lines().forEach(System.out::println), "shard-output");
+                forwarder.setDaemon(true);
+                forwarder.start();
+                return port;
+            }
+        }
+        throw new IOException("Shard server exited before reporting its port");
+    }
+}
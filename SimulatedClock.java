@@ -0,0 +1,29 @@
+/**
+ * Manually advanced KitchenClock for replaying a service deterministically
+ */
+public class SimulatedClock implements KitchenClock {
+    private long nowMillis;
+
+    public SimulatedClock(long startMillis) {
+        this.nowMillis = startMillis;
+    }
+
+    @Override
+    public synchronized long currentTimeMillis() {
+        return nowMillis;
+    }
+
+    public synchronized void advance(long millis) {
+        if (millis < 0) {
+            throw new IllegalArgumentException("Cannot move the clock backwards");
+        }
+        nowMillis += millis;
+    }
+
+    public synchronized void advanceTo(long millis) {
+        if (millis < nowMillis) {
+            throw new IllegalArgumentException("Cannot move the clock backwards");
+        }
+        nowMillis = millis;
+    }
+}
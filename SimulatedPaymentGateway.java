@@ -0,0 +1,67 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local stand-in for a real gateway: every call sleeps for the configured latency
+ * (plus optional jitter) and approves each authorization that names a payer with the
+ * given probability.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double successRate;
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong authorizations = new AtomicLong();
+    private final AtomicLong voids = new AtomicLong();
+
+    public SimulatedPaymentGateway(long latencyMillis, long jitterMillis, double successRate) {
+        if (latencyMillis < 0 || jitterMillis < 0) {
+            throw new IllegalArgumentException("Latency and jitter cannot be negative");
+        }
+        if (successRate < 0 || successRate > 1) {
+            throw new IllegalArgumentException("Success rate must be between 0 and 1");
+        }
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.successRate = successRate;
+    }
+
+    @Override
+    public boolean[] authorize(String paymentMethod, PaymentAuthorization[] batch) {
+        calls.incrementAndGet();
+        authorizations.addAndGet(batch.length);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new boolean[batch.length];
+            }
+        }
+        boolean[] results = new boolean[batch.length];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = batch[i].getAmountCents() > 0 && !batch[i].getAccountId().isEmpty()
+                && random.nextDouble() < successRate;
+        }
+        return results;
+    }
+
+    @Override
+    public void voidAuthorization(PaymentAuthorization authorization) {
+        voids.incrementAndGet();
+    }
+
+    public long getCallCount() {
+        return calls.get();
+    }
+
+    public long getAuthorizationCount() {
+        return authorizations.get();
+    }
+
+    public long getVoidCount() {
+        return voids.get();
+    }
+}
@@ -1,26 +1,36 @@
 public class TakeawayOrder extends OrderTemplate {
     private final String pickupTime = "11:20";
-    double subtotal = 0;
+    long subtotal = 0;
 
     public TakeawayOrder(PaymentHandler paymentHandler, OrderNotifier notifier, OrderCalculator calculator) {
         super(paymentHandler, notifier, calculator);
     }
 
+    public TakeawayOrder(int orderId, PaymentHandler paymentHandler, OrderNotifier notifier, OrderCalculator calculator) {
+        super(orderId, paymentHandler, notifier, calculator);
+    }
+
+    @Override
+    public OrderType getOrderType() {
+        return OrderType.TAKEAWAY;
+    }
+
     @Override
     protected void calculateTotal() {
-        subtotal = calculator.calculateSubtotal(items);
-        double discount = calculator.calculateDiscount(items);
-        double afterDiscount = Math.max(0.0, subtotal - discount);
-        double tax = calculator.calculateTax(afterDiscount);
-        double total = afterDiscount + tax;
-        System.out.printf("[TakeawayOrder #%d] Subtotal=%.2f Discount=%.2f Tax=%.2f => Total=%.2f (Pickup=%s)\n", 
-            getOrderId(), subtotal, discount, tax, total, pickupTime);
+        PricedOrder priced = getPricedOrder();
+        subtotal = priced.getSubtotalCents();
+        long discount = priced.getDiscountCents();
+        long tax = priced.getTaxCents();
+        long total = priced.getTotalCents();
+        Log.info(() -> "[TakeawayOrder #" + getOrderId() + "] Subtotal=" + Money.format(subtotal)
+            + " Discount=" + Money.format(discount) + " Tax=" + Money.format(tax)
+            + " => Total=" + Money.format(total) + " (Pickup=" + pickupTime + ")");
     }
 
     @Override
     protected boolean handlePayment() {
         if (paymentStrategy == null) return true;
-        return paymentHandler.processPayment(calculator.calculateTotal(items), paymentStrategy);
+        return paymentHandler.processPayment(getPricedOrder().getTotalCents(), paymentStrategy);
     }
 
     @Override
@@ -30,7 +40,6 @@ public class TakeawayOrder extends OrderTemplate {
 
     @Override
     protected void printBill() {
-        BillingSystem.getInstance().generateAndPrintBill(getOrderId(), items, calculator);
-        System.out.println("Pickup Time: " + pickupTime);
+        getBillingSystem().generateAndPrintBill(getOrderId(), getPricedOrder(), "Pickup Time: " + pickupTime);
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ public class UIController {
 
     // ===== Basic Input Methods =====
     public int readInt(String prompt) {
+        Log.flush();
         while (true) {
             System.out.print(prompt + ": ");
             try {
@@ -16,12 +17,15 @@ public class UIController {
     }
 
     public String readString(String prompt) {
+        Log.flush();
         System.out.print(prompt + ": ");
         return sc.nextLine();
     }
 
     // ===== General Output =====
+    // Drain pending log lines first so console output stays in order
     public void showMessage(String msg) {
+        Log.flush();
         System.out.println(msg);
     }
 
@@ -32,6 +36,7 @@ public class UIController {
     }
 
     public void showFooter(String message) {
+        Log.flush();
         System.out.println("\n========================================");
         System.out.println("  " + message);
         System.out.println("========================================");
@@ -68,22 +73,25 @@ public class UIController {
     }
 
     // ===== Notification Setup =====
-    public void showNotificationSystemSetup() {
+    public void showNotificationSystemSetup(int floorWaiters, int tables) {
         System.out.println("[System] Notification system ready!");
-        System.out.println("  - 3 Kitchen stations subscribed (Main, Pizza, Grill)");
-        System.out.println("  - 4 Waiters subscribed (covering all tables + delivery)");
+        System.out.println("  - 3 Kitchen stations subscribed (Main, Pizza, Grill), orders split by item type");
+        System.out.println("  - " + (floorWaiters + 1) + " Waiters subscribed (" + floorWaiters + " splitting tables 1-"
+            + tables + " + 1 for delivery)");
         System.out.println("  - All will receive automatic notifications for new orders");
     }
 
     // ===== Decorators =====
+    // Identical choices share one cached variant instead of a fresh decorator chain per line
     public MenuItem configureExtras(MenuItem item) {
+        List<MenuModifier> extras = new ArrayList<>(2);
         String cheese = readString("Add extra cheese? (yes/no)");
-        if (cheese.equalsIgnoreCase("yes")) item = new ExtraCheeseDecorator(item);
+        if (cheese.equalsIgnoreCase("yes")) extras.add(MenuModifier.EXTRA_CHEESE);
 
         String sauce = readString("Add sauce? (yes/no)");
-        if (!sauce.equalsIgnoreCase("no")) item = new SauceDecorator(item);
+        if (!sauce.equalsIgnoreCase("no")) extras.add(MenuModifier.SAUCE);
 
-        return item;
+        return MenuVariantCache.getInstance().variant(item, extras);
     }
 
     // ===== Payment =====
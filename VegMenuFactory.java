@@ -6,6 +6,7 @@ public class VegMenuFactory extends MenuFactory {
         Menu menu = new Menu();
         menu.addItem(new PizzaItem("Margherita", 55.0));
         menu.addItem(new BurgerItem("Veggie Classic", 45.0));
+        menu.getIndex(); // build the lookup index once, up front
         return menu;
     }
 }
\ No newline at end of file
@@ -9,13 +9,21 @@ public class Waiter implements Observer {
 
     @Override
     public void update(OrderTemplate order) {
-        System.out.println("[Waiter " + id + "] Notified about order #" + order.getOrderId() 
+        Log.info(() -> "[Waiter " + id + "] Notified about order #" + order.getOrderId() 
             + " (status: " + order.getStatus() + ")");
     }
 
-    public void serve(OrderTemplate order) {
-        System.out.println("[Waiter " + id + "] Serving order #" + order.getOrderId() 
-            + " to table " + assignedTable);
+    // Only a READY order can be served; false (and nothing changes) for one that is
+    // still in the kitchen, already served, or cancelled
+    public boolean serve(OrderTemplate order) {
+        if (!order.advanceStatus(OrderStatus.READY, OrderStatus.SERVED)) {
+            Log.warn(() -> "[Waiter " + id + "] Cannot serve order #" + order.getOrderId()
+                + " (status: " + order.getStatus() + ")");
+            return false;
+        }
+        Log.info(() -> "[Waiter " + id + "] Served order #" + order.getOrderId() 
+            + " to table " + order.getTableNumber());
+        return true;
     }
 
     public String getId() {
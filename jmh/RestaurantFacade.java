@@ -0,0 +1,198 @@
+import benchmarks.Restaurant;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Default-package side of benchmarks.Restaurant: casts each handle back to its real
+ * type and calls the code under test, nothing more, so a benchmark measures the same
+ * call it names. Fixtures come from PerformanceBenchmark.
+ */
+public class RestaurantFacade implements Restaurant {
+    private static final List<MenuModifier> CHEESE_SAUCE = List.of(MenuModifier.EXTRA_CHEESE, MenuModifier.SAUCE);
+
+    private final BillGenerator generator = new BillGenerator();
+    // Observers count into here, so their work is not dead code
+    private final long[] observed = new long[1];
+
+    // ===== Fixtures =====
+
+    @Override
+    public Object calculator(int discounts) {
+        return PerformanceBenchmark.calculatorWith(discounts);
+    }
+
+    @Override
+    public Object orderLines(int lines) {
+        return PerformanceBenchmark.orderLines(lines);
+    }
+
+    @Override
+    public Object menuLines(int lines) {
+        return PerformanceBenchmark.menuLines(lines);
+    }
+
+    @Override
+    public Object priced(Object calculator, Object lines) {
+        return ((OrderCalculator) calculator).price(items(lines));
+    }
+
+    @Override
+    public Object bill(int lines) {
+        return generator.generateBill(42, PerformanceBenchmark.menuLines(lines), PerformanceBenchmark.calculatorWith(2));
+    }
+
+    @Override
+    public Object decoratedPizza(int depth) {
+        return PerformanceBenchmark.decorate(new PizzaItem("Margherita", 55.0), depth);
+    }
+
+    @Override
+    public Object freeze(Object item) {
+        return FrozenMenuItem.of((MenuItem) item);
+    }
+
+    @Override
+    public Object pizza() {
+        return new PizzaItem("Margherita", 55.0);
+    }
+
+    @Override
+    public Object variantCache() {
+        return new MenuVariantCache(64);
+    }
+
+    @Override
+    public Object catalogItems(int size) {
+        return PerformanceBenchmark.catalogItems(size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object catalog(Object items) {
+        return MenuCatalog.of((List<MenuItem>) items);
+    }
+
+    @Override
+    public Object broadcastNotifier(int observers) {
+        return PerformanceBenchmark.broadcastNotifier(observers, observed);
+    }
+
+    @Override
+    public Object routedNotifier(int observers) {
+        return PerformanceBenchmark.routedNotifier(observers, observed);
+    }
+
+    @Override
+    public Object takeawayOrder() {
+        return new TakeawayOrder(null, null, null);
+    }
+
+    @Override
+    public Object seatedOrder() {
+        return new DineInOrder(null, null, null);
+    }
+
+    @Override
+    public Object consolePrinter() {
+        return new ConsoleBillPrinter();
+    }
+
+    @Override
+    public Object bufferedPrinter() {
+        return new BufferedBillPrinter(OutputStream.nullOutputStream());
+    }
+
+    @Override
+    public Object codec() {
+        return new OrderCodec();
+    }
+
+    // ===== Operations under test =====
+
+    @Override
+    public long calculateTotalCents(Object calculator, Object lines) {
+        return ((OrderCalculator) calculator).calculateTotalCents(items(lines));
+    }
+
+    @Override
+    public long generateBill(Object calculator, Object lines) {
+        return generator.generateBill(42, items(lines), (OrderCalculator) calculator).getTotalCents();
+    }
+
+    @Override
+    public long generateBill(Object priced) {
+        return generator.generateBill(42, (PricedOrder) priced).getTotalCents();
+    }
+
+    @Override
+    public long priceAndDescription(Object menuItem) {
+        MenuItem item = (MenuItem) menuItem;
+        return Double.doubleToRawLongBits(item.getPrice()) + item.getDescription().length();
+    }
+
+    @Override
+    public long buildCheeseSauceVariant(Object base) {
+        return FrozenMenuItem.of(new SauceDecorator(new ExtraCheeseDecorator((MenuItem) base))).getPriceCents();
+    }
+
+    @Override
+    public long cachedCheeseSauceVariant(Object cache, Object base) {
+        return ((MenuVariantCache) cache).variant((MenuItem) base, CHEESE_SAUCE).getPriceCents();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public long sumPrices(Object items) {
+        long total = 0;
+        for (MenuItem item : (List<MenuItem>) items) {
+            total += Money.fromDouble(item.getPrice());
+        }
+        return total;
+    }
+
+    @Override
+    public long sumCatalogPrices(Object catalog) {
+        MenuCatalog columns = (MenuCatalog) catalog;
+        long total = 0;
+        for (int id = 0; id < columns.size(); id++) {
+            total += columns.getPriceCents(id);
+        }
+        return total;
+    }
+
+    @Override
+    public void notifyObservers(Object notifier, Object order) {
+        ((OrderNotifier) notifier).notifyObservers((OrderTemplate) order);
+    }
+
+    @Override
+    public void print(Object printer, Object bill) {
+        ((BillPrinter) printer).print((Bill) bill);
+    }
+
+    @Override
+    public ByteBuffer encodeBill(Object codec, Object bill) {
+        return ((OrderCodec) codec).encodeBill((Bill) bill);
+    }
+
+    @Override
+    public long decodeBill(Object codec, ByteBuffer encoded) {
+        return ((OrderCodec) codec).decodeBill(encoded).getTotalCents();
+    }
+
+    @Override
+    public byte[] javaSerialize(Object bill) {
+        return PerformanceBenchmark.javaSerialize((Bill) bill);
+    }
+
+    @Override
+    public long javaDeserialize(byte[] serialized) {
+        return PerformanceBenchmark.javaDeserialize(serialized).getTotalCents();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<OrderItem> items(Object lines) {
+        return (List<OrderItem>) lines;
+    }
+}
@@ -0,0 +1,54 @@
+package benchmarks;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Bill encoding and decoding: OrderCodec against Java serialization of the same fields
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    private static final Restaurant restaurant = Restaurant.INSTANCE;
+
+    @Param({ "1", "10", "100" })
+    public int lines;
+
+    private Object codec;
+    private Object bill;
+    private ByteBuffer encoded;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() {
+        codec = restaurant.codec();
+        bill = restaurant.bill(lines);
+        encoded = restaurant.encodeBill(codec, bill);
+        serialized = restaurant.javaSerialize(bill);
+    }
+
+    @Benchmark
+    public ByteBuffer encodeBill() {
+        return restaurant.encodeBill(codec, bill);
+    }
+
+    @Benchmark
+    public long decodeBill() {
+        return restaurant.decodeBill(codec, encoded.duplicate());
+    }
+
+    @Benchmark
+    public byte[] javaSerializationWrite() {
+        return restaurant.javaSerialize(bill);
+    }
+
+    @Benchmark
+    public long javaSerializationRead() {
+        return restaurant.javaDeserialize(serialized);
+    }
+}
@@ -0,0 +1,90 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Menu item access: decorator chains walked per call versus frozen snapshots, building
+ * a decorated line versus sharing a cached variant, and a catalogue scan over objects
+ * versus the struct-of-arrays MenuCatalog
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MenuBenchmark {
+    private static final Restaurant restaurant = Restaurant.INSTANCE;
+
+    @State(Scope.Thread)
+    public static class Chains {
+        @Param({ "1", "4", "16", "64" })
+        public int depth;
+
+        Object decorated;
+        Object frozen;
+
+        @Setup
+        public void setUp() {
+            decorated = restaurant.decoratedPizza(depth);
+            frozen = restaurant.freeze(decorated);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Variants {
+        Object base;
+        Object cache;
+
+        @Setup
+        public void setUp() {
+            base = restaurant.pizza();
+            cache = restaurant.variantCache();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Catalog {
+        @Param({ "1000", "100000" })
+        public int items;
+
+        Object objects;
+        Object columns;
+
+        @Setup
+        public void setUp() {
+            objects = restaurant.catalogItems(items);
+            columns = restaurant.catalog(objects);
+        }
+    }
+
+    @Benchmark
+    public long decoratorChain(Chains chains) {
+        return restaurant.priceAndDescription(chains.decorated);
+    }
+
+    @Benchmark
+    public long frozenItem(Chains chains) {
+        return restaurant.priceAndDescription(chains.frozen);
+    }
+
+    @Benchmark
+    public long buildDecoratedLine(Variants variants) {
+        return restaurant.buildCheeseSauceVariant(variants.base);
+    }
+
+    @Benchmark
+    public long cachedVariant(Variants variants) {
+        return restaurant.cachedCheeseSauceVariant(variants.cache, variants.base);
+    }
+
+    @Benchmark
+    public long sumPricesOverObjects(Catalog catalog) {
+        return restaurant.sumPrices(catalog.objects);
+    }
+
+    @Benchmark
+    public long sumPricesOverCatalog(Catalog catalog) {
+        return restaurant.sumCatalogPrices(catalog.columns);
+    }
+}
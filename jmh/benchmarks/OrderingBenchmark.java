@@ -0,0 +1,94 @@
+package benchmarks;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Ordering flow: observer fan-out (broadcast and table-routed) and receipt printing
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class OrderingBenchmark {
+    private static final Restaurant restaurant = Restaurant.INSTANCE;
+
+    @State(Scope.Thread)
+    public static class Broadcast {
+        @Param({ "1", "10", "100", "1000" })
+        public int observers;
+
+        Object notifier;
+        Object order;
+
+        @Setup
+        public void setUp() {
+            notifier = restaurant.broadcastNotifier(observers);
+            order = restaurant.takeawayOrder();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Routed {
+        @Param({ "100", "1000" })
+        public int subscribers;
+
+        Object notifier;
+        Object order;
+
+        @Setup
+        public void setUp() {
+            notifier = restaurant.routedNotifier(subscribers);
+            order = restaurant.seatedOrder();
+        }
+    }
+
+    // ConsoleBillPrinter writes to System.out, which is silenced for the trial
+    @State(Scope.Thread)
+    public static class Printers {
+        @Param({ "10" })
+        public int billLines;
+
+        PrintStream console;
+        Object bill;
+        Object consolePrinter;
+        Object bufferedPrinter;
+
+        @Setup
+        public void setUp() {
+            console = System.out;
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            bill = restaurant.bill(billLines);
+            consolePrinter = restaurant.consolePrinter();
+            bufferedPrinter = restaurant.bufferedPrinter();
+        }
+
+        @TearDown
+        public void tearDown() {
+            System.setOut(console);
+        }
+    }
+
+    @Benchmark
+    public void notifyObservers(Broadcast broadcast) {
+        restaurant.notifyObservers(broadcast.notifier, broadcast.order);
+    }
+
+    @Benchmark
+    public void notifyRoutedObservers(Routed routed) {
+        restaurant.notifyObservers(routed.notifier, routed.order);
+    }
+
+    @Benchmark
+    public void consoleBillPrinter(Printers printers) {
+        restaurant.print(printers.consolePrinter, printers.bill);
+    }
+
+    @Benchmark
+    public void bufferedBillPrinter(Printers printers) {
+        restaurant.print(printers.bufferedPrinter, printers.bill);
+    }
+}
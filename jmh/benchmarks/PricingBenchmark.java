@@ -0,0 +1,67 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Order pricing: OrderCalculator over growing orders and discount sets, and bill
+ * generation from a calculator versus from an already priced order
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PricingBenchmark {
+    private static final Restaurant restaurant = Restaurant.INSTANCE;
+
+    @State(Scope.Thread)
+    public static class Orders {
+        @Param({ "1", "10", "100", "1000" })
+        public int lines;
+
+        @Param({ "0", "2", "16" })
+        public int discounts;
+
+        Object calculator;
+        Object items;
+
+        @Setup
+        public void setUp() {
+            calculator = restaurant.calculator(discounts);
+            items = restaurant.orderLines(lines);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Bills {
+        @Param({ "1", "10", "100" })
+        public int billLines;
+
+        Object calculator;
+        Object items;
+        Object priced;
+
+        @Setup
+        public void setUp() {
+            calculator = restaurant.calculator(2);
+            items = restaurant.orderLines(billLines);
+            priced = restaurant.priced(calculator, items);
+        }
+    }
+
+    @Benchmark
+    public long calculateTotalCents(Orders orders) {
+        return restaurant.calculateTotalCents(orders.calculator, orders.items);
+    }
+
+    @Benchmark
+    public long generateBillFromCalculator(Bills bills) {
+        return restaurant.generateBill(bills.calculator, bills.items);
+    }
+
+    @Benchmark
+    public long generateBillFromPricedOrder(Bills bills) {
+        return restaurant.generateBill(bills.priced);
+    }
+}
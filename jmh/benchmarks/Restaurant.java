@@ -0,0 +1,91 @@
+package benchmarks;
+
+import java.nio.ByteBuffer;
+
+/**
+ * What the benchmarks need from the restaurant code. The restaurant classes live in the
+ * default package, which JMH benchmarks (always in a named package) cannot import, so
+ * RestaurantFacade in jmh/ implements this interface in the default package and each
+ * method is a one-line call into the real code. Domain objects travel as Object: the
+ * @Setup methods build them from their @Param values through the factory methods, and
+ * the @Benchmark methods hand them back to the operation under test.
+ */
+public interface Restaurant {
+    Restaurant INSTANCE = load();
+
+    // ===== Fixtures (PerformanceBenchmark's, so both harnesses measure the same inputs) =====
+
+    Object calculator(int discounts);
+
+    Object orderLines(int lines);
+
+    Object menuLines(int lines);
+
+    Object priced(Object calculator, Object lines);
+
+    Object bill(int lines);
+
+    Object decoratedPizza(int depth);
+
+    Object freeze(Object item);
+
+    Object pizza();
+
+    Object variantCache();
+
+    Object catalogItems(int size);
+
+    Object catalog(Object items);
+
+    Object broadcastNotifier(int observers);
+
+    Object routedNotifier(int observers);
+
+    Object takeawayOrder();
+
+    Object seatedOrder();
+
+    Object consolePrinter();
+
+    Object bufferedPrinter();
+
+    Object codec();
+
+    // ===== Operations under test =====
+
+    long calculateTotalCents(Object calculator, Object lines);
+
+    long generateBill(Object calculator, Object lines);
+
+    long generateBill(Object priced);
+
+    long priceAndDescription(Object menuItem);
+
+    long buildCheeseSauceVariant(Object base);
+
+    long cachedCheeseSauceVariant(Object cache, Object base);
+
+    long sumPrices(Object items);
+
+    long sumCatalogPrices(Object catalog);
+
+    void notifyObservers(Object notifier, Object order);
+
+    void print(Object printer, Object bill);
+
+    ByteBuffer encodeBill(Object codec, Object bill);
+
+    long decodeBill(Object codec, ByteBuffer encoded);
+
+    byte[] javaSerialize(Object bill);
+
+    long javaDeserialize(byte[] serialized);
+
+    private static Restaurant load() {
+        try {
+            return (Restaurant) Class.forName("RestaurantFacade").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot load RestaurantFacade", e);
+        }
+    }
+}